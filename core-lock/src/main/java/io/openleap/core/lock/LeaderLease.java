@@ -0,0 +1,87 @@
+package io.openleap.core.lock;
+
+import io.openleap.core.lock.db.LockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-lived leadership on top of a {@link SessionAdvisoryLock}: the leader keeps the lock, and the pinned
+ * connection holding it, for as long as that connection is healthy.
+ * <p>
+ * {@link #isLeader()} answers from local state. Only once per check interval does it touch the database: the leader
+ * validates its connection, a follower tries to take the lock. When the leader's connection drops, Postgres releases
+ * the lock and a follower takes over on its next check. Two nodes may act as leader for at most one interval after
+ * a connection loss, so callers must tolerate that overlap (e.g. publish at-least-once).
+ * <p>
+ * The leader holds one pool connection for the whole lease. Same PgBouncer restriction as {@link SessionAdvisoryLock}.
+ */
+public class LeaderLease implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderLease.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final SessionAdvisoryLock lock;
+    private final String key;
+    private final long checkIntervalNanos;
+
+    private boolean leader;
+    private long nextCheckAt;
+    private boolean closed;
+
+    public LeaderLease(DataSource dataSource, String key, LockRepository lockRepository, long checkIntervalMillis) {
+        this.lock = new SessionAdvisoryLock(dataSource, key, lockRepository);
+        this.key = key;
+        this.checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(checkIntervalMillis);
+        this.nextCheckAt = System.nanoTime();
+    }
+
+    /**
+     * @return whether this node currently holds the leadership
+     */
+    public synchronized boolean isLeader() {
+        if (closed) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (now - nextCheckAt < 0) {
+            return leader;
+        }
+        nextCheckAt = now + checkIntervalNanos;
+        if (leader) {
+            if (lock.isHeld(VALIDATION_TIMEOUT_SECONDS)) {
+                return true;
+            }
+            log.warn("Lost leadership [{}]: lock connection is no longer valid", key);
+            // Closes the dead connection; the server has already released the lock with the session
+            lock.unlock();
+            leader = false;
+        }
+        try {
+            leader = lock.tryLock();
+        } catch (Exception e) {
+            log.debug("Leadership [{}] check failed: {}", key, e.getMessage());
+            leader = false;
+        }
+        if (leader) {
+            log.info("Acquired leadership [{}]", key);
+        }
+        return leader;
+    }
+
+    /**
+     * Gives up the leadership, if held, so another node can take over without waiting for a connection timeout.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (leader) {
+            lock.unlock();
+            leader = false;
+            log.info("Released leadership [{}]", key);
+        }
+    }
+}
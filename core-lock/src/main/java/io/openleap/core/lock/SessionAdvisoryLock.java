@@ -135,6 +135,22 @@ public class SessionAdvisoryLock implements Lock {
         }
     }
 
+    /**
+     * Checks that the session holding the lock is still alive; Postgres drops the session locks of a lost connection.
+     *
+     * @return false if the lock is not held or its connection is gone
+     */
+    public boolean isHeld(int timeoutSeconds) {
+        if (this.connection == null) {
+            return false;
+        }
+        try {
+            return this.connection.isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
     @Override
     public Condition newCondition() {
         // TODO (itaseski): Implement if/when needed
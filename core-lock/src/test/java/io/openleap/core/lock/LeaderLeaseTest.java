@@ -0,0 +1,109 @@
+package io.openleap.core.lock;
+
+import io.openleap.core.lock.db.LockRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LeaderLeaseTest {
+
+    private static final String LOCK_KEY = "test-leader";
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private LockRepository lockRepository;
+
+    @Mock
+    private Connection connection;
+
+    @Test
+    @DisplayName("should keep leadership on a pinned connection and answer locally within the check interval")
+    void shouldAnswerLocallyWithinCheckInterval() throws SQLException {
+        // given
+        LeaderLease lease = new LeaderLease(dataSource, LOCK_KEY, lockRepository, 60000);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(lockRepository.tryAcquireSessionLock(connection, (long) LOCK_KEY.hashCode())).thenReturn(true);
+
+        // when
+        boolean first = lease.isLeader();
+        boolean second = lease.isLeader();
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        verify(dataSource, times(1)).getConnection();
+        verify(connection, never()).isValid(anyInt());
+        verify(connection, never()).close();
+    }
+
+    @Test
+    @DisplayName("should drop leadership and try again when the lock connection is no longer valid")
+    void shouldRetakeLeadershipWhenConnectionDrops() throws SQLException {
+        // given
+        LeaderLease lease = new LeaderLease(dataSource, LOCK_KEY, lockRepository, 0);
+        Connection replacement = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection, replacement);
+        when(lockRepository.tryAcquireSessionLock(any(), eq((long) LOCK_KEY.hashCode()))).thenReturn(true, false);
+        when(connection.isValid(anyInt())).thenReturn(false);
+
+        // when
+        boolean first = lease.isLeader();
+        boolean second = lease.isLeader();
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        verify(connection).close();
+        verify(replacement).close();
+    }
+
+    @Test
+    @DisplayName("should stay follower without holding a connection when the lock is taken")
+    void shouldStayFollowerWhenLockTaken() throws SQLException {
+        // given
+        LeaderLease lease = new LeaderLease(dataSource, LOCK_KEY, lockRepository, 60000);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(lockRepository.tryAcquireSessionLock(connection, (long) LOCK_KEY.hashCode())).thenReturn(false);
+
+        // when
+        boolean first = lease.isLeader();
+        boolean second = lease.isLeader();
+
+        // then
+        assertThat(first).isFalse();
+        assertThat(second).isFalse();
+        verify(dataSource, times(1)).getConnection();
+        verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("should release the lock and its connection on close")
+    void shouldReleaseOnClose() throws SQLException {
+        // given
+        LeaderLease lease = new LeaderLease(dataSource, LOCK_KEY, lockRepository, 60000);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(lockRepository.tryAcquireSessionLock(connection, (long) LOCK_KEY.hashCode())).thenReturn(true);
+        when(lockRepository.releaseSessionLock(connection, (long) LOCK_KEY.hashCode())).thenReturn(true);
+        lease.isLeader();
+
+        // when
+        lease.close();
+
+        // then
+        assertThat(lease.isLeader()).isFalse();
+        verify(lockRepository).releaseSessionLock(connection, (long) LOCK_KEY.hashCode());
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.benchmark;
+
+import io.openleap.core.messaging.dispatcher.DispatchResult;
+import io.openleap.core.messaging.dispatcher.OutboxDispatcher;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Application context of the processor benchmark: the regular messaging auto-configuration with an outbox
+ * dispatcher that acks every event in memory. Scheduling is not enabled, so the only dispatch passes are the
+ * benchmark's own.
+ */
+@SpringBootApplication
+public class BenchmarkApplication {
+
+    // Replaces the built-in dispatchers, which are switched off by ol.messaging.outbox.dispatcher.type=benchmark
+    @Bean
+    public OutboxDispatcher benchmarkOutboxDispatcher() {
+        return event -> DispatchResult.ok();
+    }
+}
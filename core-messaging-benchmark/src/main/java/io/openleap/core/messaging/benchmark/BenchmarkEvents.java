@@ -0,0 +1,73 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.benchmark;
+
+import io.openleap.core.messaging.RoutingKey;
+import io.openleap.core.messaging.event.BaseDomainEvent;
+import io.openleap.core.messaging.event.OutgoingEvent;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Events of a realistic size shared by all benchmarks.
+ */
+final class BenchmarkEvents {
+
+    static final String EXCHANGE = "ol.exchange.events";
+
+    static final RoutingKey ROUTING_KEY = RoutingKey.of("benchmark.order.created", "Benchmark event");
+
+    private BenchmarkEvents() {
+        // Prevent instantiation
+    }
+
+    static BaseDomainEvent domainEvent(int i) {
+        return BaseDomainEvent.builder()
+                .aggregateId("order-" + i)
+                .aggregateType("order")
+                .changeType("created")
+                .version(1L)
+                .occurredAt(Instant.now())
+                .metadata(Map.of(
+                        "customerId", "customer-" + (i % 100),
+                        "currency", "EUR",
+                        "total", 129.95,
+                        "items", List.of(Map.of("sku", "sku-1", "quantity", 2), Map.of("sku", "sku-2", "quantity", 1))))
+                .build();
+    }
+
+    static Map<String, String> headers() {
+        return Map.of("traceId", "4bf92f3577b34da6a3ce929d0e0e4736", "source", "benchmark");
+    }
+
+    static List<OutgoingEvent> outgoing(int count) {
+        List<OutgoingEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(new OutgoingEvent(EXCHANGE, ROUTING_KEY, domainEvent(i), headers()));
+        }
+        return events;
+    }
+}
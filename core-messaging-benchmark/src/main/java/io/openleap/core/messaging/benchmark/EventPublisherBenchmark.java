@@ -0,0 +1,94 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.benchmark;
+
+import io.openleap.core.messaging.config.MessagingProperties;
+import io.openleap.core.messaging.event.EventPublisher;
+import io.openleap.core.messaging.event.OutgoingEvent;
+import io.openleap.core.messaging.repository.OutboxRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link EventPublisher#enqueueInternal}: header enrichment, payload and header serialization and building
+ * the outbox entity. The repository is a stub, so no database time is included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventPublisherBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int batchSize;
+
+    private EventPublisher eventPublisher;
+
+    private List<OutgoingEvent> events;
+
+    private Blackhole blackhole;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        // Outside a transaction enqueueInternal saves every entity directly, which lands in the blackhole here
+        OutboxRepository repository = (OutboxRepository) Proxy.newProxyInstance(
+                OutboxRepository.class.getClassLoader(), new Class<?>[]{OutboxRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("save")) {
+                        this.blackhole.consume(args[0]);
+                        return args[0];
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        eventPublisher = new EventPublisher(new MessagingProperties(), repository, JsonMapper.builder().build());
+        events = BenchmarkEvents.outgoing(batchSize);
+    }
+
+    /**
+     * Enqueues one batch of {@code batchSize} events.
+     */
+    @Benchmark
+    public void enqueue() {
+        for (OutgoingEvent event : events) {
+            eventPublisher.enqueueInternal(event.exchangeKey(), event.routingKey(), event.domainEvent(), event.headers());
+        }
+    }
+}
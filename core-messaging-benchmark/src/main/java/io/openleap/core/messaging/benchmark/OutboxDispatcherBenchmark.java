@@ -0,0 +1,113 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.benchmark;
+
+import io.openleap.core.messaging.dispatcher.DispatchResult;
+import io.openleap.core.messaging.dispatcher.rabbitmq.RabbitMqOutboxDispatcher;
+import io.openleap.core.messaging.entity.OutboxEvent;
+import io.openleap.core.messaging.entity.OutboxEventId;
+import io.openleap.core.messaging.entity.OutboxHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link RabbitMqOutboxDispatcher#dispatchAll} on the client side: converting outbox rows into AMQP messages
+ * and collecting their confirms. The template acks every message in place, so no broker time is included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutboxDispatcherBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int batchSize;
+
+    private RabbitMqOutboxDispatcher dispatcher;
+
+    private List<OutboxEvent> events;
+
+    @Setup
+    public void setUp() {
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        dispatcher = new RabbitMqOutboxDispatcher(new AckingRabbitTemplate(), jsonMapper, 5000);
+        events = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            OutboxEvent event = new OutboxEvent();
+            event.setId((long) i + 1);
+            event.setBusinessId(OutboxEventId.create());
+            event.setExchangeKey(BenchmarkEvents.EXCHANGE);
+            event.setRoutingKey(BenchmarkEvents.ROUTING_KEY.key());
+            event.setOccurredAt(Instant.now());
+            event.setPayloadJson(jsonMapper.writeValueAsString(BenchmarkEvents.domainEvent(i)));
+            event.setHeadersJson(jsonMapper.writeValueAsString(BenchmarkEvents.headers()));
+            event.setHeadersBytes(OutboxHeaders.encode(BenchmarkEvents.headers()));
+            events.add(event);
+        }
+    }
+
+    /**
+     * Dispatches one window of {@code batchSize} events.
+     */
+    @Benchmark
+    public List<DispatchResult> dispatchAll() {
+        return dispatcher.dispatchAll(events);
+    }
+
+    /**
+     * In-memory template that drops every message and confirms it at once.
+     */
+    static class AckingRabbitTemplate extends RabbitTemplate {
+
+        private volatile Message lastMessage;
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            // Kept so the conversion cannot be optimized away
+            lastMessage = message;
+            if (correlationData != null) {
+                correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+            }
+        }
+    }
+}
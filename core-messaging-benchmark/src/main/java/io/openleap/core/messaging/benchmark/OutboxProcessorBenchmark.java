@@ -0,0 +1,135 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.benchmark;
+
+import io.openleap.core.messaging.event.EventPublisher;
+import io.openleap.core.messaging.event.OutgoingEvent;
+import io.openleap.core.messaging.service.OutboxProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of one {@link OutboxProcessor} pass over a backlog of {@value #BACKLOG} events in a real Postgres,
+ * reported per event. The dispatcher acks in memory, so the numbers are the database and bookkeeping share of a
+ * dispatch pass.
+ * <p>
+ * Postgres runs in a throwaway Testcontainers container like in the integration tests; the outbox queries
+ * ({@code FOR UPDATE SKIP LOCKED}, advisory locks) have no equivalent in an in-process database.
+ * {@code mode} selects the keyset pass of the {@code single} dispatcher or the claim loop of the {@code workers}
+ * dispatcher.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OutboxProcessorBenchmark {
+
+    static final int BACKLOG = 1000;
+
+    @Param({"10", "100", "500"})
+    private int batchSize;
+
+    @Param({"single", "claimed"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+
+    private OutboxProcessor outboxProcessor;
+
+    private EventPublisher eventPublisher;
+
+    private TransactionTemplate transactionTemplate;
+
+    private List<OutgoingEvent> backlog;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:tc:postgresql:18:///openleap",
+                        "spring.datasource.driver-class-name=org.testcontainers.jdbc.ContainerDatabaseDriver",
+                        "spring.jpa.hibernate.ddl-auto=none",
+                        "spring.flyway.locations=classpath:db/migration",
+                        "ol.messaging.events-exchange=" + BenchmarkEvents.EXCHANGE,
+                        "ol.messaging.outbox.dispatcher.type=benchmark",
+                        "ol.messaging.outbox.dispatcher.wakeup-after-commit=false",
+                        "ol.messaging.outbox.dispatcher.delete-on-ack=true",
+                        "ol.messaging.outbox.dispatcher.batch-size=" + batchSize)
+                .run();
+        outboxProcessor = context.getBean(OutboxProcessor.class);
+        eventPublisher = context.getBean(EventPublisher.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        backlog = BenchmarkEvents.outgoing(BACKLOG);
+    }
+
+    @Setup(Level.Invocation)
+    public void seedBacklog() {
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.enqueueAll(backlog));
+    }
+
+    /**
+     * Drains the whole backlog.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BACKLOG)
+    public int drain() {
+        if (mode.equals("single")) {
+            return outboxProcessor.processOutbox();
+        }
+        int dispatched = 0;
+        int claimed;
+        while ((claimed = outboxProcessor.processClaimedBatch()) > 0) {
+            dispatched += claimed;
+        }
+        return dispatched;
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging;
+
+/**
+ * Matches routing keys against patterns with AMQP topic wildcards: {@code *} stands for exactly one word,
+ * {@code #} for zero or more words.
+ */
+public final class TopicPattern {
+
+    private TopicPattern() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Whether a routing key matches a pattern with topic wildcards; a {@code null} pattern matches every key.
+     */
+    public static boolean matches(String pattern, String routingKey) {
+        if (pattern == null || pattern.equals("#")) {
+            return true;
+        }
+        if (routingKey == null) {
+            return false;
+        }
+        return matchWords(pattern.split("\\."), 0, routingKey.split("\\."), 0);
+    }
+
+    private static boolean matchWords(String[] pattern, int p, String[] words, int w) {
+        if (p == pattern.length) {
+            return w == words.length;
+        }
+        if (pattern[p].equals("#")) {
+            for (int skip = w; skip <= words.length; skip++) {
+                if (matchWords(pattern, p + 1, words, skip)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (w == words.length) {
+            return false;
+        }
+        return (pattern[p].equals("*") || pattern[p].equals(words[w])) && matchWords(pattern, p + 1, words, w + 1);
+    }
+}
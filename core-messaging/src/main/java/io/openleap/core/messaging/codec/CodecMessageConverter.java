@@ -0,0 +1,68 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.codec;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Listener-side converter that decodes message bodies with the {@link EventCodec} matching their content type.
+ * Messages of any other content type, JSON included, and all outgoing conversions go to the fallback converter.
+ * <p>
+ * The target type is the parameter type of the listener method. Binary bodies carry no trusted type information,
+ * so listeners without a typed parameter receive a generic map.
+ */
+public class CodecMessageConverter implements MessageConverter {
+
+    private final MessageConverter fallback;
+    private final EventCodecs codecs;
+
+    public CodecMessageConverter(MessageConverter fallback, EventCodecs codecs) {
+        this.fallback = fallback;
+        this.codecs = codecs;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        return fallback.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        MessageProperties properties = message.getMessageProperties();
+        EventCodec codec = codecs.forContentType(properties.getContentType());
+        if (codec == null || codec.contentType().equals(MessageProperties.CONTENT_TYPE_JSON)) {
+            return fallback.fromMessage(message);
+        }
+        Type type = properties.getInferredArgumentType() != null ? properties.getInferredArgumentType() : Object.class;
+        try {
+            return codec.decode(message.getBody(), type);
+        } catch (RuntimeException e) {
+            throw new MessageConversionException("Failed to decode " + properties.getContentType() + " message", e);
+        }
+    }
+}
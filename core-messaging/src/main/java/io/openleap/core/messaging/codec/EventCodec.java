@@ -0,0 +1,60 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.codec;
+
+import io.openleap.core.messaging.RoutingKey;
+
+import java.lang.reflect.Type;
+
+/**
+ * Encodes event payloads for the outbox and the broker, and decodes received message bodies.
+ * <p>
+ * Every codec owns one content type. Producers pick the codec per {@link RoutingKey}, consumers by the
+ * {@code content_type} property of the received message, see {@link EventCodecs}. Implementations must be
+ * thread-safe.
+ */
+public interface EventCodec {
+
+    /**
+     * @return MIME type written to the message and the outbox row, e.g. {@code application/cbor}
+     */
+    String contentType();
+
+    /**
+     * Whether this codec claims the given routing key without an explicit route, e.g. an Avro codec for keys that
+     * declare an {@link RoutingKey#avroSchemaUrl()}.
+     */
+    default boolean supports(RoutingKey routingKey) {
+        return false;
+    }
+
+    /**
+     * @param routingKey routing key the payload is published with, giving access to its schema URLs
+     */
+    byte[] encode(Object payload, RoutingKey routingKey);
+
+    /**
+     * @param type target type of the consumer, {@code Object} if unknown
+     */
+    Object decode(byte[] body, Type type);
+}
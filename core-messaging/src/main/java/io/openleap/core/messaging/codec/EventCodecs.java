@@ -0,0 +1,103 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.codec;
+
+import io.openleap.core.messaging.RoutingKey;
+import io.openleap.core.messaging.TopicPattern;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The registered {@link EventCodec codecs} and the rules that pick one per routing key.
+ * <p>
+ * For a routing key, the first matching {@link Route} wins, using the wildcards of topic bindings. Without one, the
+ * first codec that {@link EventCodec#supports supports} the key is used, otherwise the default content type. On the
+ * consumer side the codec is looked up by content type alone.
+ */
+public class EventCodecs {
+
+    public record Route(String routingKey, String contentType) {
+    }
+
+    private final Map<String, EventCodec> byContentType = new LinkedHashMap<>();
+    private final EventCodec defaultCodec;
+    private final List<Route> routes;
+
+    // Routing keys are a small, fixed set per service
+    private final Map<RoutingKey, EventCodec> resolved = new ConcurrentHashMap<>();
+
+    public EventCodecs(List<EventCodec> codecs, String defaultContentType, List<Route> routes) {
+        codecs.forEach(codec -> byContentType.putIfAbsent(normalize(codec.contentType()), codec));
+        this.defaultCodec = require(defaultContentType);
+        routes.forEach(route -> require(route.contentType()));
+        this.routes = List.copyOf(routes);
+    }
+
+    /**
+     * @return codec for events published with the given routing key
+     */
+    public EventCodec forRoutingKey(RoutingKey routingKey) {
+        return resolved.computeIfAbsent(routingKey, this::resolve);
+    }
+
+    /**
+     * @return codec registered for the given content type, or {@code null} if there is none
+     */
+    public EventCodec forContentType(String contentType) {
+        return contentType == null ? null : byContentType.get(normalize(contentType));
+    }
+
+    private EventCodec resolve(RoutingKey routingKey) {
+        for (Route route : routes) {
+            if (TopicPattern.matches(route.routingKey(), routingKey.key())) {
+                return forContentType(route.contentType());
+            }
+        }
+        for (EventCodec codec : byContentType.values()) {
+            if (codec.supports(routingKey)) {
+                return codec;
+            }
+        }
+        return defaultCodec;
+    }
+
+    private EventCodec require(String contentType) {
+        EventCodec codec = forContentType(contentType);
+        if (codec == null) {
+            throw new IllegalStateException("No event codec registered for content type " + contentType
+                    + ", available: " + byContentType.keySet());
+        }
+        return codec;
+    }
+
+    // Drops parameters such as charset, MIME types are case-insensitive
+    private static String normalize(String contentType) {
+        int parameters = contentType.indexOf(';');
+        String mimeType = parameters < 0 ? contentType : contentType.substring(0, parameters);
+        return mimeType.trim().toLowerCase(Locale.ROOT);
+    }
+}
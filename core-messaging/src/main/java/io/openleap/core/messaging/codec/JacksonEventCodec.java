@@ -0,0 +1,62 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.codec;
+
+import io.openleap.core.messaging.RoutingKey;
+import tools.jackson.databind.ObjectMapper;
+
+import java.lang.reflect.Type;
+
+/**
+ * {@link EventCodec} on top of a Jackson mapper. With a {@code JsonMapper} it writes JSON, with a {@code CBORMapper}
+ * or {@code SmileMapper} the corresponding binary format, from the same annotations and modules.
+ */
+public class JacksonEventCodec implements EventCodec {
+
+    public static final String CONTENT_TYPE_CBOR = "application/cbor";
+
+    public static final String CONTENT_TYPE_SMILE = "application/x-jackson-smile";
+
+    private final ObjectMapper mapper;
+    private final String contentType;
+
+    public JacksonEventCodec(ObjectMapper mapper, String contentType) {
+        this.mapper = mapper;
+        this.contentType = contentType;
+    }
+
+    @Override
+    public String contentType() {
+        return contentType;
+    }
+
+    @Override
+    public byte[] encode(Object payload, RoutingKey routingKey) {
+        return mapper.writeValueAsBytes(payload);
+    }
+
+    @Override
+    public Object decode(byte[] body, Type type) {
+        return mapper.readValue(body, mapper.getTypeFactory().constructType(type));
+    }
+}
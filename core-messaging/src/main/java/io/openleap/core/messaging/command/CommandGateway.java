@@ -22,7 +22,20 @@
  */
 package io.openleap.core.messaging.command;
 
+import java.util.concurrent.CompletableFuture;
+
 /** Gateway for dispatching commands to their handlers. */
 public interface CommandGateway {
     <R> R send(Command command);
+
+    /**
+     * Dispatches a command without blocking the caller. The default runs it on the caller thread.
+     */
+    default <R> CompletableFuture<R> sendAsync(Command command) {
+        try {
+            return CompletableFuture.completedFuture(send(command));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
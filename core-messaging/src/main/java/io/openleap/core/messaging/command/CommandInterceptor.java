@@ -0,0 +1,38 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.command;
+
+/**
+ * Hook around command handling, e.g. for metrics, idempotency or locking. Interceptors are discovered as Spring beans
+ * and applied in {@link org.springframework.core.annotation.Order} order, the first one being the outermost.
+ */
+public interface CommandInterceptor {
+
+    Object intercept(Command command, Invocation invocation);
+
+    /** Continues with the next interceptor, or the handler at the end of the chain. */
+    @FunctionalInterface
+    interface Invocation {
+        Object proceed();
+    }
+}
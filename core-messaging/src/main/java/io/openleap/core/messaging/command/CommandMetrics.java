@@ -0,0 +1,94 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.command;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of the command bus, tagged by the command type a handler is registered for.
+ * <p>
+ * Meters are registered once per handler when the bus starts, so recording an invocation is a map lookup and
+ * never goes through the registry. Commands dispatched to a handler of a supertype share that handler's meters.
+ */
+public class CommandMetrics {
+
+    private static final String COMMAND_TAG = "command";
+
+    private static final String OUTCOME_TAG = "outcome";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Class<?>, Meters> meters = new ConcurrentHashMap<>();
+
+    public CommandMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Registers the meters of a handler's command type.
+     */
+    public void registerHandler(Class<?> commandType) {
+        meters.computeIfAbsent(commandType, type -> new Meters(
+                timer(type, "success"),
+                timer(type, "failure"),
+                Counter.builder("command.errors")
+                        .description("Commands whose handler threw an exception")
+                        .tag(COMMAND_TAG, type.getName())
+                        .register(meterRegistry)));
+    }
+
+    /**
+     * Records one invocation of the handler registered for {@code commandType}.
+     */
+    public void record(Class<?> commandType, long nanos, boolean failed) {
+        Meters m = meters.get(commandType);
+        if (m == null) {
+            return;
+        }
+        if (failed) {
+            m.failure().record(nanos, TimeUnit.NANOSECONDS);
+            m.errors().increment();
+        } else {
+            m.success().record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(Class<?> commandType, String outcome) {
+        return Timer.builder("command.handle")
+                .description("Command handling time, including interceptors")
+                .tag(COMMAND_TAG, commandType.getName())
+                .tag(OUTCOME_TAG, outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record Meters(Timer success, Timer failure, Counter errors) {
+    }
+}
@@ -22,16 +22,38 @@
  */
 package io.openleap.core.messaging.command;
 
+import io.openleap.core.common.identity.IdentityHolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Simple in-memory command bus that routes commands to Spring-managed handlers.
- * This uses synchronous invocation and relies on transactional handlers.
+ * {@link #send} runs the handler on the caller thread and relies on transactional handlers;
+ * {@link #sendAsync} runs it on the bus executor (virtual threads unless configured otherwise) with the caller's
+ * identity and MDC, but outside the caller's transaction.
+ * <p>
+ * A handler registered for a supertype, a class or any interface up the hierarchy, also handles its subtypes. Every
+ * invocation passes the {@link CommandInterceptor} chain. Concurrency limits are configured for the command type a
+ * handler is registered for and gate all commands reaching that handler.
+ * Handling times go to {@link CommandMetrics} when present; invocations slower than the slow-command threshold are
+ * logged as warnings.
  */
 public class SimpleCommandBus implements CommandGateway {
 
@@ -39,22 +61,166 @@ public class SimpleCommandBus implements CommandGateway {
 
     private final Map<Class<?>, CommandHandler<?, ?>> handlers = new HashMap<>();
 
-    public SimpleCommandBus(ApplicationContext applicationContext) {
+    // Handler per concrete command class, resolved once along the type hierarchy
+    private final Map<Class<?>, Optional<CommandHandler<?, ?>>> resolvedHandlers = new ConcurrentHashMap<>();
+
+    private final List<CommandInterceptor> interceptors;
+
+    private final Executor executor;
+
+    private final Map<String, Semaphore> concurrencyLimits = new HashMap<>();
+
+    private final CommandMetrics commandMetrics;
+
+    private final long slowThresholdNanos;
+
+    public SimpleCommandBus(ApplicationContext applicationContext,
+                            Executor executor,
+                            Map<String, Integer> concurrencyLimits,
+                            CommandMetrics commandMetrics,
+                            long slowThresholdMillis) {
         // Autodiscover CommandHandler beans
         var beans = applicationContext.getBeansOfType(CommandHandler.class);
         beans.values().forEach(h -> handlers.put(h.commandType(), h));
+        List<CommandInterceptor> discovered = new ArrayList<>(applicationContext.getBeansOfType(CommandInterceptor.class).values());
+        AnnotationAwareOrderComparator.sort(discovered);
+        this.interceptors = List.copyOf(discovered);
+        this.executor = executor;
+        concurrencyLimits.forEach((type, limit) -> this.concurrencyLimits.put(type, new Semaphore(limit)));
+        this.commandMetrics = commandMetrics;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        if (commandMetrics != null) {
+            handlers.keySet().forEach(commandMetrics::registerHandler);
+        }
         if (log.isInfoEnabled()) {
-            log.info("Registered {} command handlers", handlers.size());
+            log.info("Registered {} command handlers and {} interceptors", handlers.size(), interceptors.size());
         }
     }
 
+    /**
+     * @deprecated the auto-configuration wires this bean; construct it with all collaborators instead
+     */
+    @Deprecated
+    public SimpleCommandBus(ApplicationContext applicationContext) {
+        this(applicationContext, Executors.newVirtualThreadPerTaskExecutor(), Map.of(), null, 0L);
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <R> R send(Command command) {
-        CommandHandler<Command, R> handler = (CommandHandler<Command, R>) handlers.get(command.getClass());
+        CommandHandler<Command, R> handler = (CommandHandler<Command, R>) resolveHandler(command.getClass());
         if (handler == null) {
             throw new IllegalStateException("No handler for command type: " + command.getClass().getName());
         }
-        return handler.handle(command);
+        Semaphore limit = concurrencyLimits.get(handler.commandType().getName());
+        if (limit == null) {
+            return (R) timed(command, handler);
+        }
+        limit.acquireUninterruptibly();
+        try {
+            return (R) timed(command, handler);
+        } finally {
+            limit.release();
+        }
+    }
+
+    @Override
+    public <R> CompletableFuture<R> sendAsync(Command command) {
+        CallerContext context = CallerContext.capture();
+        return CompletableFuture.supplyAsync(() -> {
+            context.restore();
+            try {
+                return send(command);
+            } finally {
+                CallerContext.clear();
+            }
+        }, executor);
+    }
+
+    private Object timed(Command command, CommandHandler<Command, ?> handler) {
+        if (commandMetrics == null && slowThresholdNanos <= 0) {
+            return invoke(command, handler, 0);
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = invoke(command, handler, 0);
+            failed = false;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            if (commandMetrics != null) {
+                commandMetrics.record(handler.commandType(), nanos, failed);
+            }
+            if (slowThresholdNanos > 0 && nanos >= slowThresholdNanos) {
+                log.warn("Slow command {} took {}ms{}", command.getClass().getName(),
+                        TimeUnit.NANOSECONDS.toMillis(nanos), failed ? " and failed" : "");
+            }
+        }
+    }
+
+    private Object invoke(Command command, CommandHandler<Command, ?> handler, int index) {
+        if (index == interceptors.size()) {
+            return handler.handle(command);
+        }
+        return interceptors.get(index).intercept(command, () -> invoke(command, handler, index + 1));
+    }
+
+    private CommandHandler<?, ?> resolveHandler(Class<?> commandType) {
+        return resolvedHandlers.computeIfAbsent(commandType, type -> {
+            for (Class<?> candidate = type; candidate != null; candidate = candidate.getSuperclass()) {
+                CommandHandler<?, ?> handler = handlers.get(candidate);
+                if (handler != null) {
+                    return Optional.of(handler);
+                }
+                handler = resolveInterfaceHandler(candidate.getInterfaces());
+                if (handler != null) {
+                    return Optional.of(handler);
+                }
+            }
+            return Optional.empty();
+        }).orElse(null);
+    }
+
+    private CommandHandler<?, ?> resolveInterfaceHandler(Class<?>[] interfaces) {
+        for (Class<?> iface : interfaces) {
+            CommandHandler<?, ?> handler = handlers.get(iface);
+            if (handler == null) {
+                handler = resolveInterfaceHandler(iface.getInterfaces());
+            }
+            if (handler != null) {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Identity and MDC of the sending thread, carried over to the executor thread.
+     */
+    private record CallerContext(UUID tenantId, UUID userId, UUID principalId, Set<String> roles,
+                                 Set<String> scopes, Map<String, String> mdc) {
+
+        static CallerContext capture() {
+            return new CallerContext(IdentityHolder.getTenantId(), IdentityHolder.getUserId(),
+                    IdentityHolder.getPrincipalId(), IdentityHolder.getRoles(), IdentityHolder.getScopes(),
+                    MDC.getCopyOfContextMap());
+        }
+
+        void restore() {
+            IdentityHolder.setTenantId(tenantId);
+            IdentityHolder.setUserId(userId);
+            IdentityHolder.setPrincipalId(principalId);
+            IdentityHolder.setRoles(roles);
+            IdentityHolder.setScopes(scopes);
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+        }
+
+        static void clear() {
+            IdentityHolder.clear();
+            MDC.clear();
+        }
     }
 }
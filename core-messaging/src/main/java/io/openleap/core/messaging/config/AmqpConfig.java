@@ -24,11 +24,17 @@ package io.openleap.core.messaging.config;
 
 
 import io.openleap.core.messaging.MessageCoverageTracker;
+import io.openleap.core.messaging.codec.CodecMessageConverter;
+import io.openleap.core.messaging.codec.EventCodec;
+import io.openleap.core.messaging.codec.EventCodecs;
+import io.openleap.core.messaging.codec.JacksonEventCodec;
 import io.openleap.core.messaging.exception.NonRetryableException;
 import io.openleap.core.messaging.exception.RetryableException;
+import org.aopalliance.aop.Advice;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
@@ -36,6 +42,7 @@ import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFacto
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageBatchRecoverer;
 import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Value;
@@ -44,10 +51,18 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.core.retry.RetryPolicy;
 import org.springframework.core.retry.RetryTemplate;
 import org.springframework.util.backoff.ExponentialBackOff;
 import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
 @Configuration(proxyBeanMethods = false)
 public class AmqpConfig {
@@ -80,55 +95,28 @@ public class AmqpConfig {
         return new JacksonJsonMessageConverter(jsonMapper);
     }
 
-    // TODO (itaseski): This method is outdated and currently there is no avro support in the starter.
-    // Specifically, 'org.springframework.cloud.stream.schema.avro.AvroSchemaMessageConverter'
-    // is missing from the classpath. This manual reflection-based logic should be removed
     @Bean
-    @ConditionalOnClass(name = "org.springframework.cloud.stream.schema.avro.AvroSchemaMessageConverter")
-    @Deprecated
-    public MessageConverter starterMessageConverter(JacksonJsonMessageConverter jsonConverter) {
-        boolean registryEnabled = olStarterServiceProperties.getRegistry().isEnabled();
-        if (!registryEnabled) {
-            return jsonConverter;
-        }
-        // Try to create Avro converter via reflection to avoid hard dependency
-        try {
-            Class<?> convClass = Class.forName("org.springframework.cloud.stream.schema.avro.AvroSchemaMessageConverter");
-            Object conv = convClass.getDeclaredConstructor().newInstance();
-            // If SchemaRegistryClient is present and URL configured, try to set it
-            try {
-                Class<?> clientClass = Class.forName("org.springframework.cloud.schema.registry.client.SchemaRegistryClient");
-                String url = olStarterServiceProperties.getRegistry().getUrl();
-                if (url != null && !url.isBlank()) {
-                    // Create a default client if available (implementation varies by version). If not, fallback to JSON.
-                    Object client;
-                    try {
-                        Class<?> impl = Class.forName("org.springframework.cloud.schema.registry.client.DefaultSchemaRegistryClient");
-                        client = impl.getDeclaredConstructor().newInstance();
-                        impl.getMethod("setEndpoint", String.class).invoke(client, url);
-                        convClass.getMethod("setSchemaRegistryClient", clientClass).invoke(conv, client);
-                    } catch (ClassNotFoundException e) {
-                        log.warn("Schema Registry client implementation not found on classpath; falling back to JSON.");
-                        return jsonConverter;
-                    }
-                }
-            } catch (ClassNotFoundException ignored) {
-                log.warn("Spring Cloud Schema Registry classes not found; falling back to JSON.");
-                return jsonConverter;
-            }
-            if (olStarterServiceProperties.getRegistry().getFormat() != null) {
-                try {
-                    convClass.getMethod("setContentType", String.class)
-                            .invoke(conv, olStarterServiceProperties.getRegistry().getFormat());
-                } catch (NoSuchMethodException ignored) {
-                    // older versions may not have this, ignore
-                }
-            }
-            return (MessageConverter) conv;
-        } catch (Throwable t) {
-            log.warn("Failed to initialize Avro message converter; using JSON instead: {}", t.toString());
-            return jsonConverter;
-        }
+    public EventCodec jsonEventCodec(JsonMapper jsonMapper) {
+        return new JacksonEventCodec(jsonMapper, MessageProperties.CONTENT_TYPE_JSON);
+    }
+
+    // Further codecs, e.g. Avro keyed by RoutingKey.avroSchemaUrl(), are picked up as EventCodec beans
+    @Bean
+    public EventCodecs eventCodecs(List<EventCodec> codecs) {
+        MessagingProperties.Codec codec = olStarterServiceProperties.getCodec();
+        return new EventCodecs(codecs, codec.getDefaultContentType(), codec.getRoutes().stream()
+                .map(route -> new EventCodecs.Route(route.getRoutingKey(), route.getContentType()))
+                .toList());
+    }
+
+    /**
+     * Converter of the starter's templates and listener factories: decodes binary bodies by their content type
+     * and leaves everything else to the JSON converter.
+     */
+    @Bean
+    @Primary
+    public MessageConverter starterMessageConverter(JacksonJsonMessageConverter jsonConverter, EventCodecs eventCodecs) {
+        return new CodecMessageConverter(jsonConverter, eventCodecs);
     }
 
     @Bean
@@ -184,25 +172,93 @@ public class AmqpConfig {
         return new MessagingIdentityClearingAdvice();
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = "ol.messaging.retry", name = "mode", havingValue = "delayed")
+    public DelayedRetryAdvice delayedRetryAdvice(RabbitTemplate rabbitTemplate) {
+        return new DelayedRetryAdvice(rabbitTemplate, olStarterServiceProperties.getRetry(),
+                olStarterServiceProperties.getOutbox().getDispatcher().getConfirmTimeoutMillis());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "ol.messaging.retry", name = "mode", havingValue = "delayed")
+    public Declarables retryDelayQueues() {
+        return DelayedRetryAdvice.delayQueues(olStarterServiceProperties.getRetry());
+    }
+
     @Bean(name = "starterRabbitListenerContainerFactory")
     public SimpleRabbitListenerContainerFactory starterRabbitListenerContainerFactory(
             ConnectionFactory connectionFactory,
             MessageConverter converter,
             MessagingIdentityPostProcessor identityPostProcessor,
             MessagingIdentityClearingAdvice clearingAdvice,
-            MessagingProperties olStarterServiceProperties) {
-        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
-        factory.setConnectionFactory(connectionFactory);
-        factory.setMessageConverter(converter);
-        factory.setDefaultRequeueRejected(false);
-        factory.setMissingQueuesFatal(false);
+            MessagingProperties olStarterServiceProperties,
+            Optional<DelayedRetryAdvice> delayedRetryAdvice,
+            Optional<InboxAdvice> inboxAdvice) {
+        SimpleRabbitListenerContainerFactory factory = listenerContainerFactory(connectionFactory, converter,
+                olStarterServiceProperties.getConsumer());
         // Identity extraction/validation for incoming messages + always clear afterward
         factory.setAfterReceivePostProcessors(identityPostProcessor);
-        // TODO (itaseski): Check the use of StatelessRetryOperationsInterceptor and StatefulRetryOperationsInterceptor
+        List<Advice> adviceChain = new ArrayList<>();
+        if (delayedRetryAdvice.isPresent()) {
+            // Failed messages leave the consumer thread right away and come back through the delay queues
+            adviceChain.add(delayedRetryAdvice.get());
+        } else {
+            // TODO (itaseski): Check the use of StatelessRetryOperationsInterceptor and StatefulRetryOperationsInterceptor
+            adviceChain.add(RetryInterceptorBuilder.stateless()
+                    .retryPolicy(retryPolicy(olStarterServiceProperties))
+                    .recoverer((message, cause) -> {
+                        throw new AmqpRejectAndDontRequeueException(cause);
+                    })
+                    .build());
+        }
+        // Inside the retry advice, so every retry is a fresh inbox transaction
+        inboxAdvice.ifPresent(adviceChain::add);
+        adviceChain.add(clearingAdvice);
+        factory.setAdviceChain(adviceChain.toArray(Advice[]::new));
+        return factory;
+    }
+
+    /**
+     * Listener factory for batch listeners ({@code List<Message>} or {@code List<T>} parameters). The container
+     * collects up to {@code ol.messaging.consumer.batch-size} messages and acknowledges them with a single ack.
+     * Identity headers are validated per message; since a batch may span tenants, the listener binds each
+     * message's identity with {@link MessagingIdentityPostProcessor#withIdentity}.
+     * <p>
+     * Batches are neither deduplicated by {@link InboxAdvice} nor retried through {@link DelayedRetryAdvice}; both work
+     * on single messages. With {@code ol.messaging.inbox.enabled} or {@code ol.messaging.retry.mode=delayed} set, every
+     * batch container logs a warning on creation.
+     */
+    @Bean(name = "starterBatchRabbitListenerContainerFactory")
+    public SimpleRabbitListenerContainerFactory starterBatchRabbitListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            MessageConverter converter,
+            MessagingIdentityPostProcessor identityPostProcessor,
+            MessagingIdentityClearingAdvice clearingAdvice,
+            MessagingProperties olStarterServiceProperties) {
+        MessagingProperties.Consumer consumer = olStarterServiceProperties.getConsumer();
+        SimpleRabbitListenerContainerFactory factory = listenerContainerFactory(connectionFactory, converter, consumer);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(consumer.getBatchSize());
+        // A batch can only fill up if the broker may push at least that many unacked messages
+        factory.setPrefetchCount(Math.max(consumer.getPrefetch(), consumer.getBatchSize()));
+        if (consumer.getBatchReceiveTimeout() > 0) {
+            factory.setBatchReceiveTimeout(consumer.getBatchReceiveTimeout());
+        }
+        factory.setAfterReceivePostProcessors(identityPostProcessor.forBatch());
+        boolean inboxEnabled = olStarterServiceProperties.getInbox().isEnabled();
+        boolean delayedRetry = olStarterServiceProperties.getRetry().getMode() == MessagingProperties.RetryMode.delayed;
+        if (inboxEnabled || delayedRetry) {
+            // Customizer rather than a check here, so only services that actually declare batch listeners are warned
+            factory.setContainerCustomizer(container -> log.warn(
+                    "Batch listener on {} is not deduplicated (inbox.enabled={}) and retries in-thread (retry.mode={})",
+                    Arrays.toString(container.getQueueNames()), inboxEnabled,
+                    olStarterServiceProperties.getRetry().getMode()));
+        }
         factory.setAdviceChain(
                 RetryInterceptorBuilder.stateless()
                         .retryPolicy(retryPolicy(olStarterServiceProperties))
-                        .recoverer((message, cause) -> {
+                        .recoverer((MessageBatchRecoverer) (messages, cause) -> {
                             throw new AmqpRejectAndDontRequeueException(cause);
                         })
                         .build(),
@@ -210,6 +266,20 @@ public class AmqpConfig {
         return factory;
     }
 
+    private static SimpleRabbitListenerContainerFactory listenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                                 MessageConverter converter,
+                                                                                 MessagingProperties.Consumer consumer) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(converter);
+        factory.setDefaultRequeueRejected(false);
+        factory.setMissingQueuesFatal(false);
+        factory.setPrefetchCount(consumer.getPrefetch());
+        factory.setConcurrentConsumers(consumer.getConcurrentConsumers());
+        factory.setMaxConcurrentConsumers(Math.max(consumer.getConcurrentConsumers(), consumer.getMaxConcurrentConsumers()));
+        return factory;
+    }
+
     // TODO (itaseski): Check the use of RabbitTemplateRetrySettingsCustomizer and RabbitListenerRetrySettingsCustomizer
     @Bean
     public RetryTemplate rabbitRetryTemplate(MessagingProperties properties) {
@@ -234,4 +304,25 @@ public class AmqpConfig {
                 .backOff(backoff)
                 .build();
     }
+
+    // Separate classes, so the optional dataformat modules are only loaded when they are on the classpath
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "tools.jackson.dataformat.cbor.CBORMapper")
+    static class CborCodecConfiguration {
+
+        @Bean
+        public EventCodec cborEventCodec() {
+            return new JacksonEventCodec(CBORMapper.builder().build(), JacksonEventCodec.CONTENT_TYPE_CBOR);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "tools.jackson.dataformat.smile.SmileMapper")
+    static class SmileCodecConfiguration {
+
+        @Bean
+        public EventCodec smileEventCodec() {
+            return new JacksonEventCodec(SmileMapper.builder().build(), JacksonEventCodec.CONTENT_TYPE_SMILE);
+        }
+    }
 }
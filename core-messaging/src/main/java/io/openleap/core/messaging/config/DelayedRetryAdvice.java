@@ -0,0 +1,179 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.config;
+
+import io.openleap.core.messaging.exception.NonRetryableException;
+import io.openleap.core.messaging.exception.RetryableException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Listener advice that retries failed messages through delay queues instead of sleeping in the consumer thread.
+ * <p>
+ * For every queue in {@code ol.messaging.retry.queues} there is one delay queue per retry,
+ * {@code <queue>.retry.<n>}, whose message TTL follows the configured exponential backoff and which dead-letters
+ * back to {@code <queue>}. A message failing with a {@link RetryableException} is republished to the delay queue of
+ * its next attempt and acknowledged, so the consumer moves on to the next message at once. The attempt is counted in
+ * the {@value #RETRY_COUNT_HEADER} header. Once {@code max-attempts} deliveries have failed, or for non-retryable
+ * errors, the message is rejected and goes to the queue's dead-letter exchange, if any. The original is only
+ * acknowledged once the broker confirmed the republished copy; a nack, a return or a missing confirm rejects it instead.
+ */
+public class DelayedRetryAdvice implements MethodInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(DelayedRetryAdvice.class);
+
+    public static final String RETRY_COUNT_HEADER = "x-retry-count";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final MessagingProperties.Retry retry;
+    private final Set<String> queues;
+    private final long confirmTimeoutMillis;
+
+    public DelayedRetryAdvice(RabbitTemplate rabbitTemplate, MessagingProperties.Retry retry, long confirmTimeoutMillis) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.retry = retry;
+        this.queues = Set.copyOf(retry.getQueues());
+        this.confirmTimeoutMillis = confirmTimeoutMillis;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        try {
+            return invocation.proceed();
+        } catch (Throwable t) {
+            Object data = invocation.getArguments().length > 1 ? invocation.getArguments()[1] : null;
+            if (!(data instanceof Message message) || !isRetryable(t)) {
+                throw new AmqpRejectAndDontRequeueException(t);
+            }
+            String queue = message.getMessageProperties().getConsumerQueue();
+            int retries = retryCount(message);
+            if (queue == null || !queues.contains(queue) || retries + 1 >= retry.getMaxAttempts()) {
+                throw new AmqpRejectAndDontRequeueException(t);
+            }
+            message.getMessageProperties().setHeader(RETRY_COUNT_HEADER, retries + 1);
+            // Published through the default exchange straight into the delay queue; any failure here rejects the original
+            String delayQueue = delayQueueName(queue, retries + 1);
+            CorrelationData cd = new CorrelationData();
+            rabbitTemplate.send("", delayQueue, message, cd);
+            awaitConfirm(cd, delayQueue, t);
+            log.debug("Message from {} scheduled for retry {} in {}ms: {}", queue, retries + 1, delayMillis(retry, retries + 1), t.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Waits for the broker to take over the republished copy. A missing delay queue shows up as a return, a broker
+     * that drops the message as a nack or no confirm at all.
+     */
+    private void awaitConfirm(CorrelationData cd, String delayQueue, Throwable failure) {
+        CorrelationData.Confirm confirm;
+        try {
+            confirm = cd.getFuture().get(confirmTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpRejectAndDontRequeueException("Interrupted while awaiting the confirm of " + delayQueue, failure);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new AmqpRejectAndDontRequeueException("No confirm for the retry in " + delayQueue, failure);
+        }
+        if (!confirm.ack()) {
+            throw new AmqpRejectAndDontRequeueException("Retry nacked by " + delayQueue + ": " + confirm.reason(), failure);
+        }
+        if (cd.getReturned() != null) {
+            throw new AmqpRejectAndDontRequeueException("Retry returned unroutable for " + delayQueue + ": "
+                    + cd.getReturned().getReplyText(), failure);
+        }
+    }
+
+    /**
+     * Declares the delay queues of all configured queues.
+     */
+    public static Declarables delayQueues(MessagingProperties.Retry retry) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (String queue : retry.getQueues()) {
+            for (int attempt = 1; attempt < retry.getMaxAttempts(); attempt++) {
+                declarables.add(QueueBuilder.durable(delayQueueName(queue, attempt))
+                        .ttl((int) delayMillis(retry, attempt))
+                        .deadLetterExchange("")
+                        .deadLetterRoutingKey(queue)
+                        .build());
+            }
+        }
+        return new Declarables(declarables);
+    }
+
+    static String delayQueueName(String queue, int attempt) {
+        return queue + ".retry." + attempt;
+    }
+
+    static long delayMillis(MessagingProperties.Retry retry, int attempt) {
+        double delay = retry.getInitialInterval() * Math.pow(retry.getMultiplier(), attempt - 1);
+        return (long) Math.min(retry.getMaxInterval(), delay);
+    }
+
+    private static int retryCount(Message message) {
+        Object value = message.getMessageProperties().getHeaders().get(RETRY_COUNT_HEADER);
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.toString());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return 0;
+    }
+
+    // Same classification as the blocking retry policy
+    private static boolean isRetryable(Throwable t) {
+        boolean retryable = false;
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof NonRetryableException || cause instanceof IllegalArgumentException) {
+                return false;
+            }
+            if (cause instanceof RetryableException) {
+                retryable = true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return retryable;
+    }
+}
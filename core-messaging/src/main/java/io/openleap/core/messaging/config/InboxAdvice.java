@@ -0,0 +1,58 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.config;
+
+import io.openleap.core.messaging.service.InboxService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.amqp.core.Message;
+
+/**
+ * Listener advice that skips messages whose {@code eventId} header has already been handled by the consuming queue.
+ * Duplicates are acknowledged without invoking the listener. Messages without {@code eventId} and batches pass through.
+ */
+public class InboxAdvice implements MethodInterceptor {
+
+    public static final String EVENT_ID_HEADER = "eventId";
+
+    private final InboxService inboxService;
+
+    public InboxAdvice(InboxService inboxService) {
+        this.inboxService = inboxService;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object data = invocation.getArguments().length > 1 ? invocation.getArguments()[1] : null;
+        if (!(data instanceof Message message)) {
+            return invocation.proceed();
+        }
+        Object eventId = message.getMessageProperties().getHeaders().get(EVENT_ID_HEADER);
+        if (eventId == null || eventId.toString().isBlank()) {
+            return invocation.proceed();
+        }
+        String queue = message.getMessageProperties().getConsumerQueue();
+        inboxService.handleOnce(queue == null ? "" : queue, eventId.toString(), invocation::proceed);
+        return null;
+    }
+}
@@ -1,28 +1,53 @@
 package io.openleap.core.messaging.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.openleap.core.lock.LeaderLease;
+import io.openleap.core.lock.db.LockRepository;
+import io.openleap.core.lock.db.PostgresLockRepository;
 import io.openleap.core.messaging.MessageCoverageTracker;
+import io.openleap.core.messaging.codec.EventCodecs;
+import io.openleap.core.messaging.command.CommandMetrics;
 import io.openleap.core.messaging.command.SimpleCommandBus;
 import io.openleap.core.messaging.config.registrar.MessagingEntityRegistrar;
 import io.openleap.core.messaging.config.registrar.MessagingRepositoryRegistrar;
+import io.openleap.core.messaging.dispatcher.OutboxCircuitBreaker;
 import io.openleap.core.messaging.dispatcher.OutboxDispatcher;
 import io.openleap.core.messaging.dispatcher.OutboxDispatcherConfig;
+import io.openleap.core.messaging.dispatcher.OutboxPriorityWeights;
+import io.openleap.core.messaging.dispatcher.OutboxRateLimiter;
 import io.openleap.core.messaging.event.EventPublisher;
+import io.openleap.core.messaging.repository.InboxRepository;
 import io.openleap.core.messaging.repository.OutboxRepository;
+import io.openleap.core.messaging.service.InboxService;
 import io.openleap.core.messaging.service.MetricsService;
+import io.openleap.core.messaging.service.OutboxDirectPublisher;
 import io.openleap.core.messaging.service.OutboxAdminService;
+import io.openleap.core.messaging.service.OutboxMetrics;
+import io.openleap.core.messaging.service.OutboxNotifier;
 import io.openleap.core.messaging.service.OutboxOrchestrator;
 import io.openleap.core.messaging.service.OutboxProcessor;
+import io.openleap.core.messaging.service.OutboxRetentionService;
 import io.openleap.core.security.config.SecurityProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import tools.jackson.databind.json.JsonMapper;
 
+import javax.sql.DataSource;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @SuppressWarnings("SpringJavaInjectionPointsAutowiringInspection")
 @AutoConfiguration
@@ -31,29 +56,102 @@ import java.util.Optional;
 @Import({AmqpConfig.class, OutboxDispatcherConfig.class, MessagingEntityRegistrar.class, MessagingRepositoryRegistrar.class})
 public class MessagingAutoConfiguration {
 
+    // Distinct from the per-call @DistributedLock key of OutboxOrchestrator.execute()
+    private static final String OUTBOX_LEADER_KEY = "outbox-dispatcher-leader";
+
     @Bean
     public MessageCoverageTracker messageCoverageTracker() {
         return new MessageCoverageTracker();
     }
 
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean(name = "commandBusExecutor")
+    public ExecutorService commandBusExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "ol.messaging.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public CommandMetrics commandMetrics(Optional<MeterRegistry> meterRegistry) {
+        return new CommandMetrics(meterRegistry.orElse(io.micrometer.core.instrument.Metrics.globalRegistry));
+    }
+
+    @Bean
+    public SimpleCommandBus simpleCommandBus(ApplicationContext applicationContext,
+                                             MessagingProperties config,
+                                             @Qualifier("commandBusExecutor") Executor commandBusExecutor,
+                                             Optional<CommandMetrics> commandMetrics) {
+        return new SimpleCommandBus(applicationContext, commandBusExecutor, config.getCommand().getConcurrencyLimits(),
+                commandMetrics.orElse(null), config.getCommand().getSlowThresholdMillis());
+    }
+
     @Bean
-    public SimpleCommandBus simpleCommandBus(ApplicationContext applicationContext) {
-        return new SimpleCommandBus(applicationContext);
+    public MessagingIdentityPostProcessor messagingIdentityPostProcessor(MessagingProperties config,
+                                                                         Optional<SecurityProperties> securityProperties) {
+        return new MessagingIdentityPostProcessor(securityProperties, config.getConsumer().getIdentityCacheSize());
     }
 
     @Bean
-    public MessagingIdentityPostProcessor messagingIdentityPostProcessor(Optional<SecurityProperties> securityProperties) {
-        return new MessagingIdentityPostProcessor(securityProperties);
+    @ConditionalOnProperty(prefix = "ol.messaging.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxMetrics outboxMetrics(MessagingProperties config,
+                                       OutboxRepository outboxRepository,
+                                       Optional<MeterRegistry> meterRegistry) {
+        // Without a registry bean meters go to the global composite, which is a no-op unless something is attached to it
+        return new OutboxMetrics(meterRegistry.orElse(io.micrometer.core.instrument.Metrics.globalRegistry),
+                outboxRepository, config.getOutbox().getDispatcher().getMaxAttempts());
     }
 
     @Bean
-    public OutboxProcessor outboxProcessor(OutboxRepository outboxRepository, OutboxDispatcher outboxDispatcher) {
-        return new OutboxProcessor(outboxRepository, outboxDispatcher);
+    public OutboxProcessor outboxProcessor(OutboxRepository outboxRepository,
+                                           OutboxDispatcher outboxDispatcher,
+                                           PlatformTransactionManager transactionManager,
+                                           Optional<OutboxMetrics> outboxMetrics,
+                                           Optional<OutboxCircuitBreaker> circuitBreaker,
+                                           Optional<OutboxRateLimiter> rateLimiter,
+                                           Optional<OutboxPriorityWeights> priorityWeights) {
+        return new OutboxProcessor(outboxRepository, outboxDispatcher, new TransactionTemplate(transactionManager),
+                outboxMetrics.orElse(null), circuitBreaker.orElse(null), rateLimiter.orElse(null),
+                priorityWeights.orElse(null));
     }
 
+    // Without it every batch is claimed by one createdAt-ordered query
     @Bean
-    public OutboxOrchestrator outboxOrchestrator(OutboxProcessor outboxProcessor) {
-        return new OutboxOrchestrator(outboxProcessor);
+    @ConditionalOnProperty(prefix = "ol.messaging.outbox.dispatcher", name = "priority-scheduling-enabled", havingValue = "true")
+    public OutboxPriorityWeights outboxPriorityWeights(MessagingProperties config) {
+        return new OutboxPriorityWeights(config.getOutbox().getDispatcher().getPriorityWeights());
+    }
+
+    // Without configured rules the limiter lets every event through
+    @Bean
+    public OutboxRateLimiter outboxRateLimiter(MessagingProperties config) {
+        return new OutboxRateLimiter(config.getOutbox().getDispatcher().getRateLimits().stream()
+                .map(limit -> new OutboxRateLimiter.Rule(limit.getExchange(), limit.getRoutingKey(),
+                        limit.getPermitsPerSecond(), limit.getBurst()))
+                .toList());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "ol.messaging.outbox.dispatcher.circuit-breaker", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxCircuitBreaker outboxCircuitBreaker(MessagingProperties config) {
+        MessagingProperties.Outbox.Dispatcher.CircuitBreaker cb = config.getOutbox().getDispatcher().getCircuitBreaker();
+        return new OutboxCircuitBreaker(cb.getFailureThreshold(), cb.getOpenDurationMillis());
+    }
+
+    // Lazy: the lock connection is only taken once a single-mode pass asks for leadership
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "ol.messaging.outbox.dispatcher.leader-lease", name = "enabled", havingValue = "true")
+    public LeaderLease outboxLeaderLease(MessagingProperties config,
+                                         DataSource dataSource,
+                                         Optional<LockRepository> lockRepository) {
+        return new LeaderLease(dataSource, OUTBOX_LEADER_KEY, lockRepository.orElseGet(PostgresLockRepository::new),
+                config.getOutbox().getDispatcher().getLeaderLease().getCheckIntervalMillis());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public OutboxOrchestrator outboxOrchestrator(OutboxProcessor outboxProcessor,
+                                                 Optional<OutboxMetrics> outboxMetrics,
+                                                 Optional<LeaderLease> outboxLeaderLease) {
+        return new OutboxOrchestrator(outboxProcessor, outboxMetrics.orElse(null), outboxLeaderLease.orElse(null));
     }
 
     @Bean
@@ -61,8 +159,34 @@ public class MessagingAutoConfiguration {
                                          OutboxRepository outboxRepository,
                                          JsonMapper jsonMapper,
                                          OutboxOrchestrator outboxOrchestrator,
-                                         Optional<MessageCoverageTracker> coverageTracker) {
-        return new EventPublisher(config, outboxRepository, jsonMapper, outboxOrchestrator, coverageTracker);
+                                         Optional<MessageCoverageTracker> coverageTracker,
+                                         Optional<OutboxNotifier> outboxNotifier,
+                                         Optional<OutboxDirectPublisher> directPublisher,
+                                         Optional<EventCodecs> codecs) {
+        return new EventPublisher(config, outboxRepository, jsonMapper, outboxOrchestrator, coverageTracker,
+                outboxNotifier, directPublisher, codecs);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "ol.messaging.outbox.dispatcher.direct-publish", name = "enabled", havingValue = "true")
+    public OutboxDirectPublisher outboxDirectPublisher(MessagingProperties config,
+                                                       OutboxRepository outboxRepository,
+                                                       OutboxDispatcher outboxDispatcher,
+                                                       PlatformTransactionManager transactionManager,
+                                                       Optional<OutboxMetrics> outboxMetrics,
+                                                       Optional<OutboxCircuitBreaker> circuitBreaker,
+                                                       Optional<OutboxRateLimiter> rateLimiter) {
+        MessagingProperties.Outbox.Dispatcher dispatcher = config.getOutbox().getDispatcher();
+        // Publishing straight after commit would let transactions overtake each other within a lane
+        if (dispatcher.getMode() == MessagingProperties.DispatchMode.ordered) {
+            throw new IllegalStateException("ol.messaging.outbox.dispatcher.direct-publish cannot be combined with mode=ordered");
+        }
+        if (dispatcher.getDirectPublish().getLeaseMillis() <= dispatcher.getConfirmTimeoutMillis()) {
+            throw new IllegalStateException("ol.messaging.outbox.dispatcher.direct-publish.lease-millis must exceed confirm-timeout-millis");
+        }
+        return new OutboxDirectPublisher(outboxDispatcher, outboxRepository, new TransactionTemplate(transactionManager),
+                outboxMetrics.orElse(null), circuitBreaker.orElse(null), rateLimiter.orElse(null),
+                dispatcher.isDeleteOnAck(), dispatcher.getDirectPublish().getLeaseMillis());
     }
 
     @Bean
@@ -77,4 +201,43 @@ public class MessagingAutoConfiguration {
         return new OutboxAdminService(outboxRepository);
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = "ol.messaging.outbox.retention", name = "enabled", havingValue = "true")
+    public OutboxRetentionService outboxRetentionService(MessagingProperties config,
+                                                         OutboxRepository outboxRepository,
+                                                         PlatformTransactionManager transactionManager,
+                                                         Optional<OutboxMetrics> outboxMetrics) {
+        return new OutboxRetentionService(outboxRepository, new TransactionTemplate(transactionManager),
+                config.getOutbox().getRetention(), outboxMetrics.orElse(null));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "ol.messaging.inbox", name = "enabled", havingValue = "true")
+    public InboxService inboxService(MessagingProperties config,
+                                     InboxRepository inboxRepository,
+                                     PlatformTransactionManager transactionManager) {
+        return new InboxService(inboxRepository, new TransactionTemplate(transactionManager), config.getInbox());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "ol.messaging.inbox", name = "enabled", havingValue = "true")
+    public InboxAdvice inboxAdvice(InboxService inboxService) {
+        return new InboxAdvice(inboxService);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.postgresql.PGConnection")
+    @ConditionalOnProperty(prefix = "ol.messaging.outbox.dispatcher", name = "notify-enabled", havingValue = "true")
+    static class OutboxNotifierConfiguration {
+
+        @Bean
+        public OutboxNotifier outboxNotifier(DataSource dataSource,
+                                             OutboxRepository outboxRepository,
+                                             OutboxOrchestrator outboxOrchestrator,
+                                             MessagingProperties config) {
+            return new OutboxNotifier(dataSource, outboxRepository, outboxOrchestrator,
+                    config.getOutbox().getDispatcher().getNotifyChannel());
+        }
+    }
+
 }
\ No newline at end of file
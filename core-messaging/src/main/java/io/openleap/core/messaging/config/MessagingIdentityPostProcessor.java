@@ -26,26 +26,51 @@ package io.openleap.core.messaging.config;
 import io.openleap.core.common.identity.IdentityHolder;
 import io.openleap.core.security.JwtUtils;
 import io.openleap.core.security.config.SecurityProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessagePostProcessor;
 import org.springframework.amqp.core.MessageProperties;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 public class MessagingIdentityPostProcessor implements MessagePostProcessor {
 
+    private static final Logger log = LoggerFactory.getLogger(MessagingIdentityPostProcessor.class);
+
     public static final String HDR_TENANT = "x-tenant-id";
     public static final String HDR_USER = "x-user-id";
     public static final String HDR_SCOPES = "x-scopes";
     public static final String HDR_ROLES = "x-roles";
     public static final String HDR_JWT = "x-jwt";
 
+    // Lifetime of cached identities from tokens without an exp claim
+    private static final long DEFAULT_IDENTITY_TTL_MILLIS = 300_000L;
+
     private final SecurityProperties olStarterServiceProperties;
 
+    private final Map<String, ResolvedIdentity> identityCache;
+
     // TODO (itaseski): Check if SecurityProperties will be autowired on enabled security.
-    public MessagingIdentityPostProcessor(Optional<SecurityProperties> olStarterServiceProperties) {
+    public MessagingIdentityPostProcessor(Optional<SecurityProperties> olStarterServiceProperties, int identityCacheSize) {
         this.olStarterServiceProperties = olStarterServiceProperties.orElse(null);
+        this.identityCache = identityCacheSize <= 0 ? null : Collections.synchronizedMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, ResolvedIdentity> eldest) {
+                        return size() > identityCacheSize;
+                    }
+                });
+    }
+
+    /**
+     * @deprecated the auto-configuration wires this bean; construct it with all collaborators instead
+     */
+    @Deprecated
+    public MessagingIdentityPostProcessor(Optional<SecurityProperties> olStarterServiceProperties) {
+        this(olStarterServiceProperties, 0);
     }
 
     @Override
@@ -68,6 +93,37 @@ public class MessagingIdentityPostProcessor implements MessagePostProcessor {
         }
     }
 
+    /**
+     * Variant for consumer batches, applied to every message as it is added to the batch. Messages without a
+     * valid identity are discarded individually instead of failing the whole batch, and the identity is cleared
+     * again, since the next message of the batch may belong to another tenant.
+     */
+    public MessagePostProcessor forBatch() {
+        return message -> {
+            try {
+                return postProcessMessage(message);
+            } catch (AmqpRejectAndDontRequeueException e) {
+                log.warn("Discarding message from batch: {}", e.getMessage());
+                return null;
+            } finally {
+                IdentityHolder.clear();
+            }
+        };
+    }
+
+    /**
+     * Binds the identity carried by {@code message} while {@code action} runs and clears it afterwards.
+     * Intended for batch listeners handling one message after the other.
+     */
+    public void withIdentity(Message message, Consumer<Message> action) {
+        postProcessMessage(message);
+        try {
+            action.accept(message);
+        } finally {
+            IdentityHolder.clear();
+        }
+    }
+
     private void applyFromHeaders(MessageProperties props) {
         Map<String, Object> headers = props.getHeaders();
         Optional<UUID> tenant = firstUuid(headers, HDR_TENANT, "X-Tenant-Id");
@@ -81,13 +137,63 @@ public class MessagingIdentityPostProcessor implements MessagePostProcessor {
     private void applyFromJwt(MessageProperties props) {
         Map<String, Object> headers = props.getHeaders();
         String jwt = stringHeader(headers.get(HDR_JWT), headers.get("X-JWT"));
+        resolveJwt(jwt).apply();
+    }
+
+    /**
+     * Messages of one producer mostly carry the same token, so the identity decoded from a token is cached by the raw
+     * token until the token's {@code exp} (or {@link #DEFAULT_IDENTITY_TTL_MILLIS} without one) and restored with a
+     * single lookup.
+     */
+    private ResolvedIdentity resolveJwt(String jwt) {
+        long now = System.currentTimeMillis();
+        if (jwt == null || identityCache == null) {
+            return decodeJwt(jwt, now);
+        }
+        ResolvedIdentity cached = identityCache.get(jwt);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            return cached;
+        }
+        ResolvedIdentity resolved = decodeJwt(jwt, now);
+        if (resolved.expiresAtMillis() > now) {
+            identityCache.put(jwt, resolved);
+        } else if (cached != null) {
+            identityCache.remove(jwt);
+        }
+        return resolved;
+    }
+
+    private static ResolvedIdentity decodeJwt(String jwt, long now) {
         Map<String, Object> claims = JwtUtils.decodePayloadClaims(jwt);
-        // tenant/user
-        findUuidClaim(claims, "tenantId", "tenantid", "tenant_id").ifPresent(IdentityHolder::setTenantId);
-        findUuidClaim(claims, "userId", "userid", "user_id", "sub").ifPresent(IdentityHolder::setUserId);
-        // roles/scopes
-        IdentityHolder.setRoles(claimAsStringSet(claims, "roles"));
-        IdentityHolder.setScopes(scopesFromClaim(claims));
+        long expiresAt = claims.get("exp") instanceof Number exp
+                ? exp.longValue() * 1000L
+                : now + DEFAULT_IDENTITY_TTL_MILLIS;
+        return new ResolvedIdentity(
+                // tenant/user
+                findUuidClaim(claims, "tenantId", "tenantid", "tenant_id").orElse(null),
+                findUuidClaim(claims, "userId", "userid", "user_id", "sub").orElse(null),
+                // roles/scopes
+                Set.copyOf(claimAsStringSet(claims, "roles")),
+                Set.copyOf(scopesFromClaim(claims)),
+                expiresAt);
+    }
+
+    /**
+     * Identity resolved from a token; immutable so cached instances can be shared between consumer threads.
+     */
+    private record ResolvedIdentity(UUID tenantId, UUID userId, Set<String> roles, Set<String> scopes,
+                                    long expiresAtMillis) {
+
+        void apply() {
+            if (tenantId != null) {
+                IdentityHolder.setTenantId(tenantId);
+            }
+            if (userId != null) {
+                IdentityHolder.setUserId(userId);
+            }
+            IdentityHolder.setRoles(roles);
+            IdentityHolder.setScopes(scopes);
+        }
     }
 
     private static String stringHeader(Object... candidates) {
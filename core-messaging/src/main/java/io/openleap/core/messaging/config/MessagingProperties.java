@@ -22,8 +22,16 @@
  */
 package io.openleap.core.messaging.config;
 
+import io.openleap.core.messaging.event.EventPriority;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @ConfigurationProperties(prefix = "ol.messaging")
 public class MessagingProperties {
 
@@ -33,6 +41,10 @@ public class MessagingProperties {
     private Outbox outbox = new Outbox();
     private Metrics metrics = new Metrics();
     private Retry retry = new Retry();
+    private Consumer consumer = new Consumer();
+    private Inbox inbox = new Inbox();
+    private Command command = new Command();
+    private Codec codec = new Codec();
 
     // Getters and Setters
 
@@ -52,10 +64,24 @@ public class MessagingProperties {
         this.coverage = coverage;
     }
 
+    /**
+     * @deprecated not read by the starter since the reflection Avro converter was replaced by {@link Codec};
+     * custom codecs that resolve schemas should bind their own properties
+     */
+    @Deprecated
     public Registry getRegistry() {
         return registry;
     }
 
+    public Codec getCodec() {
+        return codec;
+    }
+
+    public void setCodec(Codec codec) {
+        this.codec = codec;
+    }
+
+    @Deprecated
     public void setRegistry(Registry registry) {
         this.registry = registry;
     }
@@ -84,14 +110,68 @@ public class MessagingProperties {
         this.retry = retry;
     }
 
+    public Consumer getConsumer() {
+        return consumer;
+    }
+
+    public void setConsumer(Consumer consumer) {
+        this.consumer = consumer;
+    }
+
+    public Inbox getInbox() {
+        return inbox;
+    }
+
+    public void setInbox(Inbox inbox) {
+        this.inbox = inbox;
+    }
+
+    public Command getCommand() {
+        return command;
+    }
+
+    public void setCommand(Command command) {
+        this.command = command;
+    }
+
     // Nested configuration classes
 
+    public enum DispatchMode {
+        single,
+        parallel,
+        ordered
+    }
+
+    public enum RetryMode {
+        blocking,
+        delayed
+    }
+
     public static class Retry {
+        // Applies to the single-message listener factory; batch listeners always retry in-thread
+        private RetryMode mode = RetryMode.blocking;
+        private List<String> queues = new ArrayList<>();
         private int maxAttempts = 3;
         private long initialInterval = 1000L;
         private double multiplier = 2.0;
         private long maxInterval = 10000L;
 
+        public RetryMode getMode() {
+            return mode;
+        }
+
+        public void setMode(RetryMode mode) {
+            this.mode = mode;
+        }
+
+        public List<String> getQueues() {
+            return queues;
+        }
+
+        public void setQueues(List<String> queues) {
+            this.queues = queues;
+        }
+
         public int getMaxAttempts() {
             return maxAttempts;
         }
@@ -125,6 +205,139 @@ public class MessagingProperties {
         }
     }
 
+    public static class Consumer {
+        private int prefetch = 250;
+        private int concurrentConsumers = 1;
+        private int maxConcurrentConsumers = 1;
+        private int batchSize = 100;
+        private long batchReceiveTimeout = 0L;
+        private int identityCacheSize = 1024;
+
+        public int getPrefetch() {
+            return prefetch;
+        }
+
+        public void setPrefetch(int prefetch) {
+            this.prefetch = prefetch;
+        }
+
+        public int getConcurrentConsumers() {
+            return concurrentConsumers;
+        }
+
+        public void setConcurrentConsumers(int concurrentConsumers) {
+            this.concurrentConsumers = concurrentConsumers;
+        }
+
+        public int getMaxConcurrentConsumers() {
+            return maxConcurrentConsumers;
+        }
+
+        public void setMaxConcurrentConsumers(int maxConcurrentConsumers) {
+            this.maxConcurrentConsumers = maxConcurrentConsumers;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getBatchReceiveTimeout() {
+            return batchReceiveTimeout;
+        }
+
+        public void setBatchReceiveTimeout(long batchReceiveTimeout) {
+            this.batchReceiveTimeout = batchReceiveTimeout;
+        }
+
+        public int getIdentityCacheSize() {
+            return identityCacheSize;
+        }
+
+        public void setIdentityCacheSize(int identityCacheSize) {
+            this.identityCacheSize = identityCacheSize;
+        }
+    }
+
+    public static class Command {
+        // Maximum concurrent executions per fully qualified command class name
+        private Map<String, Integer> concurrencyLimits = new HashMap<>();
+        // Commands taking at least this long are logged as warnings; 0 disables the log
+        private long slowThresholdMillis = 0L;
+
+        public Map<String, Integer> getConcurrencyLimits() {
+            return concurrencyLimits;
+        }
+
+        public void setConcurrencyLimits(Map<String, Integer> concurrencyLimits) {
+            this.concurrencyLimits = concurrencyLimits;
+        }
+
+        public long getSlowThresholdMillis() {
+            return slowThresholdMillis;
+        }
+
+        public void setSlowThresholdMillis(long slowThresholdMillis) {
+            this.slowThresholdMillis = slowThresholdMillis;
+        }
+    }
+
+    public static class Inbox {
+        // Applies to the single-message listener factory; batch listeners are not deduplicated
+        private boolean enabled = false;
+        private int cacheSize = 10000;
+        private Duration retention = Duration.ofDays(7);
+        private long purgeInterval = 3600000L;
+        private int chunkSize = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getCacheSize() {
+            return cacheSize;
+        }
+
+        public void setCacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public long getPurgeInterval() {
+            return purgeInterval;
+        }
+
+        public void setPurgeInterval(long purgeInterval) {
+            this.purgeInterval = purgeInterval;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * @deprecated see {@link #getRegistry()}
+     */
+    @Deprecated
     public static class Registry {
         private boolean enabled = false;
         private String url = "http://localhost:8990";
@@ -155,8 +368,52 @@ public class MessagingProperties {
         }
     }
 
+    public static class Codec {
+        private String defaultContentType = "application/json";
+        private List<Route> routes = new ArrayList<>();
+
+        public String getDefaultContentType() {
+            return defaultContentType;
+        }
+
+        public void setDefaultContentType(String defaultContentType) {
+            this.defaultContentType = defaultContentType;
+        }
+
+        public List<Route> getRoutes() {
+            return routes;
+        }
+
+        public void setRoutes(List<Route> routes) {
+            this.routes = routes;
+        }
+
+        public static class Route {
+            private String routingKey = "#";
+            private String contentType;
+
+            public String getRoutingKey() {
+                return routingKey;
+            }
+
+            public void setRoutingKey(String routingKey) {
+                this.routingKey = routingKey;
+            }
+
+            public String getContentType() {
+                return contentType;
+            }
+
+            public void setContentType(String contentType) {
+                this.contentType = contentType;
+            }
+        }
+    }
+
     public static class Outbox {
         private Dispatcher dispatcher = new Dispatcher();
+        private int writeBatchSize = 50;
+        private Retention retention = new Retention();
 
         public Dispatcher getDispatcher() {
             return dispatcher;
@@ -166,14 +423,93 @@ public class MessagingProperties {
             this.dispatcher = dispatcher;
         }
 
+        public Retention getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Retention retention) {
+            this.retention = retention;
+        }
+
+        public int getWriteBatchSize() {
+            return writeBatchSize;
+        }
+
+        public void setWriteBatchSize(int writeBatchSize) {
+            this.writeBatchSize = writeBatchSize;
+        }
+
+        public static class Retention {
+            private boolean enabled = false;
+            private Duration maxAge = Duration.ofDays(7);
+            private long interval = 3600000L;
+            private int chunkSize = 1000;
+            private long pauseMillis = 100L;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Duration getMaxAge() {
+                return maxAge;
+            }
+
+            public void setMaxAge(Duration maxAge) {
+                this.maxAge = maxAge;
+            }
+
+            public long getInterval() {
+                return interval;
+            }
+
+            public void setInterval(long interval) {
+                this.interval = interval;
+            }
+
+            public int getChunkSize() {
+                return chunkSize;
+            }
+
+            public void setChunkSize(int chunkSize) {
+                this.chunkSize = chunkSize;
+            }
+
+            public long getPauseMillis() {
+                return pauseMillis;
+            }
+
+            public void setPauseMillis(long pauseMillis) {
+                this.pauseMillis = pauseMillis;
+            }
+        }
+
         public static class Dispatcher {
             private long fixedDelay = 1000L;
+            private long maxDelay = 10000L;
             private boolean enabled = true;
             private boolean wakeupAfterCommit = true;
             private boolean deleteOnAck = false;
             private int maxAttempts = 10;
             private long confirmTimeoutMillis = 5000L;
             private String type = "rabbitmq";
+            private DispatchMode mode = DispatchMode.single;
+            private int workers = 4;
+            private int batchSize = 100;
+            private int pageSize = 500;
+            private boolean notifyEnabled = false;
+            private String notifyChannel = "outbox_events";
+            private int lanes = 16;
+            private CircuitBreaker circuitBreaker = new CircuitBreaker();
+            private List<RateLimit> rateLimits = new ArrayList<>();
+            private boolean prioritySchedulingEnabled = false;
+            private Map<EventPriority, Integer> priorityWeights = new EnumMap<>(Map.of(
+                    EventPriority.HIGH, 8, EventPriority.NORMAL, 4, EventPriority.LOW, 1));
+            private DirectPublish directPublish = new DirectPublish();
+            private LeaderLease leaderLease = new LeaderLease();
 
             public long getFixedDelay() {
                 return fixedDelay;
@@ -183,6 +519,14 @@ public class MessagingProperties {
                 this.fixedDelay = fixedDelay;
             }
 
+            public long getMaxDelay() {
+                return maxDelay;
+            }
+
+            public void setMaxDelay(long maxDelay) {
+                this.maxDelay = maxDelay;
+            }
+
             public boolean isEnabled() {
                 return enabled;
             }
@@ -230,12 +574,246 @@ public class MessagingProperties {
             public void setType(String type) {
                 this.type = type;
             }
+
+            public DispatchMode getMode() {
+                return mode;
+            }
+
+            public void setMode(DispatchMode mode) {
+                this.mode = mode;
+            }
+
+            public int getWorkers() {
+                return workers;
+            }
+
+            public void setWorkers(int workers) {
+                this.workers = workers;
+            }
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public int getPageSize() {
+                return pageSize;
+            }
+
+            public void setPageSize(int pageSize) {
+                this.pageSize = pageSize;
+            }
+
+            public boolean isNotifyEnabled() {
+                return notifyEnabled;
+            }
+
+            public void setNotifyEnabled(boolean notifyEnabled) {
+                this.notifyEnabled = notifyEnabled;
+            }
+
+            public String getNotifyChannel() {
+                return notifyChannel;
+            }
+
+            public void setNotifyChannel(String notifyChannel) {
+                this.notifyChannel = notifyChannel;
+            }
+
+            public int getLanes() {
+                return lanes;
+            }
+
+            public void setLanes(int lanes) {
+                this.lanes = lanes;
+            }
+
+            public CircuitBreaker getCircuitBreaker() {
+                return circuitBreaker;
+            }
+
+            public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+                this.circuitBreaker = circuitBreaker;
+            }
+
+            public List<RateLimit> getRateLimits() {
+                return rateLimits;
+            }
+
+            public void setRateLimits(List<RateLimit> rateLimits) {
+                this.rateLimits = rateLimits;
+            }
+
+            public boolean isPrioritySchedulingEnabled() {
+                return prioritySchedulingEnabled;
+            }
+
+            public void setPrioritySchedulingEnabled(boolean prioritySchedulingEnabled) {
+                this.prioritySchedulingEnabled = prioritySchedulingEnabled;
+            }
+
+            public Map<EventPriority, Integer> getPriorityWeights() {
+                return priorityWeights;
+            }
+
+            public void setPriorityWeights(Map<EventPriority, Integer> priorityWeights) {
+                this.priorityWeights = priorityWeights;
+            }
+
+            public LeaderLease getLeaderLease() {
+                return leaderLease;
+            }
+
+            public void setLeaderLease(LeaderLease leaderLease) {
+                this.leaderLease = leaderLease;
+            }
+
+            public DirectPublish getDirectPublish() {
+                return directPublish;
+            }
+
+            public void setDirectPublish(DirectPublish directPublish) {
+                this.directPublish = directPublish;
+            }
+
+            public static class CircuitBreaker {
+                private boolean enabled = true;
+                private int failureThreshold = 5;
+                private long openDurationMillis = 30000L;
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public int getFailureThreshold() {
+                    return failureThreshold;
+                }
+
+                public void setFailureThreshold(int failureThreshold) {
+                    this.failureThreshold = failureThreshold;
+                }
+
+                public long getOpenDurationMillis() {
+                    return openDurationMillis;
+                }
+
+                public void setOpenDurationMillis(long openDurationMillis) {
+                    this.openDurationMillis = openDurationMillis;
+                }
+            }
+
+            public static class LeaderLease {
+                private boolean enabled = false;
+                private long checkIntervalMillis = 5000L;
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public long getCheckIntervalMillis() {
+                    return checkIntervalMillis;
+                }
+
+                public void setCheckIntervalMillis(long checkIntervalMillis) {
+                    this.checkIntervalMillis = checkIntervalMillis;
+                }
+            }
+
+            public static class DirectPublish {
+                private boolean enabled = false;
+                // How long the sweep leaves directly published records alone; must exceed the confirm timeout
+                private long leaseMillis = 15000L;
+
+                public boolean isEnabled() {
+                    return enabled;
+                }
+
+                public void setEnabled(boolean enabled) {
+                    this.enabled = enabled;
+                }
+
+                public long getLeaseMillis() {
+                    return leaseMillis;
+                }
+
+                public void setLeaseMillis(long leaseMillis) {
+                    this.leaseMillis = leaseMillis;
+                }
+            }
+
+            public static class RateLimit {
+                private String exchange = "*";
+                private String routingKey = "#";
+                private double permitsPerSecond;
+                private int burst = 0;
+
+                public String getExchange() {
+                    return exchange;
+                }
+
+                public void setExchange(String exchange) {
+                    this.exchange = exchange;
+                }
+
+                public String getRoutingKey() {
+                    return routingKey;
+                }
+
+                public void setRoutingKey(String routingKey) {
+                    this.routingKey = routingKey;
+                }
+
+                public double getPermitsPerSecond() {
+                    return permitsPerSecond;
+                }
+
+                public void setPermitsPerSecond(double permitsPerSecond) {
+                    this.permitsPerSecond = permitsPerSecond;
+                }
+
+                public int getBurst() {
+                    return burst;
+                }
+
+                public void setBurst(int burst) {
+                    this.burst = burst;
+                }
+            }
         }
     }
 
     public static class Metrics {
+        private boolean enabled = true;
+        private long refreshInterval = 15000;
         private Queues queues = new Queues();
 
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getRefreshInterval() {
+            return refreshInterval;
+        }
+
+        public void setRefreshInterval(long refreshInterval) {
+            this.refreshInterval = refreshInterval;
+        }
+
         public Queues getQueues() {
             return queues;
         }
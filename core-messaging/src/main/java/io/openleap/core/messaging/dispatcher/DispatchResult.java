@@ -1,6 +1,14 @@
 package io.openleap.core.messaging.dispatcher;
 
-public record DispatchResult(boolean success, String reason) {
+/**
+ * Outcome of a single dispatch. {@code brokerUnavailable} marks failures caused by the broker
+ * connection rather than by the event, such as refused connections or missing confirms.
+ */
+public record DispatchResult(boolean success, String reason, boolean brokerUnavailable) {
+
+    public DispatchResult(boolean success, String reason) {
+        this(success, reason, false);
+    }
 
     public static DispatchResult ok() {
         return new DispatchResult(true, null);
@@ -10,4 +18,8 @@ public record DispatchResult(boolean success, String reason) {
         return new DispatchResult(false, reason);
     }
 
+    public static DispatchResult unavailable(String reason) {
+        return new DispatchResult(false, reason, true);
+    }
+
 }
@@ -0,0 +1,89 @@
+package io.openleap.core.messaging.dispatcher;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker for broker connectivity, shared by all dispatch paths of a node.
+ * <p>
+ * Opens after {@code failureThreshold} consecutive broker-unavailable results. While open, no events are
+ * dispatched. After {@code openDuration} a single probe event is let through (half-open); its success
+ * closes the breaker, another connection failure opens it again. Nacks and other event-level failures
+ * prove the broker is reachable and therefore count as success here.
+ */
+@Slf4j
+public class OutboxCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public OutboxCircuitBreaker(int failureThreshold, long openDurationMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+    }
+
+    /**
+     * @return {@code true} while the breaker is open and the open duration has not elapsed yet
+     */
+    public synchronized boolean isRejecting() {
+        return state == State.OPEN && System.nanoTime() - openedAt < openDurationNanos;
+    }
+
+    /**
+     * Returns how many of the {@code requested} events may be dispatched now: all of them when closed,
+     * none when open, and a single probe when half-open and no other probe is in flight.
+     */
+    public synchronized int permits(int requested) {
+        if (state == State.CLOSED) {
+            return requested;
+        }
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                return 0;
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+            log.info("[Outbox] Circuit half-open, probing broker with a single event");
+        }
+        if (probeInFlight || requested == 0) {
+            return 0;
+        }
+        probeInFlight = true;
+        return 1;
+    }
+
+    public synchronized void onBrokerReachable() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        if (state != State.CLOSED) {
+            state = State.CLOSED;
+            log.info("[Outbox] Circuit closed, broker reachable again");
+        }
+    }
+
+    public synchronized void onBrokerUnavailable() {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            log.warn("[Outbox] Circuit opened after {} consecutive broker failures", consecutiveFailures);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -2,6 +2,9 @@ package io.openleap.core.messaging.dispatcher;
 
 import io.openleap.core.messaging.entity.OutboxEvent;
 
+import java.util.ArrayList;
+import java.util.List;
+
 // TODO (itasesk): Consider use of OutboxEvent in the API
 public interface OutboxDispatcher {
 
@@ -12,4 +15,21 @@ public interface OutboxDispatcher {
      */
     DispatchResult dispatch(OutboxEvent event) throws Exception;
 
+    /**
+     * Dispatches a window of events and returns one result per event, in the same order.
+     * Implementations may publish the whole window before awaiting any acknowledgement.
+     * The default implementation dispatches the events one by one.
+     */
+    default List<DispatchResult> dispatchAll(List<OutboxEvent> events) {
+        List<DispatchResult> results = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            try {
+                results.add(dispatch(event));
+            } catch (Exception e) {
+                results.add(DispatchResult.fail(e.getMessage()));
+            }
+        }
+        return results;
+    }
+
 }
@@ -2,6 +2,7 @@ package io.openleap.core.messaging.dispatcher;
 
 import io.openleap.core.messaging.dispatcher.logger.LoggingOutboxDispatcher;
 import io.openleap.core.messaging.dispatcher.rabbitmq.RabbitMqOutboxDispatcher;
+import io.openleap.core.messaging.service.OutboxMetrics;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -9,6 +10,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import tools.jackson.databind.json.JsonMapper;
 
+import java.util.Optional;
+
 @Configuration
 public class OutboxDispatcherConfig {
 
@@ -23,8 +26,9 @@ public class OutboxDispatcherConfig {
     public OutboxDispatcher rabbitMqOutboxDispatcher(
             RabbitTemplate rabbitTemplate,
             JsonMapper jsonMapper,
-            @Value("${ol.messaging.outbox.dispatcher.confirm-timeout-millis:5000}") long timeout) {
-        return new RabbitMqOutboxDispatcher(rabbitTemplate, jsonMapper, timeout);
+            @Value("${ol.messaging.outbox.dispatcher.confirm-timeout-millis:5000}") long timeout,
+            Optional<OutboxMetrics> outboxMetrics) {
+        return new RabbitMqOutboxDispatcher(rabbitTemplate, jsonMapper, timeout, outboxMetrics.orElse(null));
     }
 
 }
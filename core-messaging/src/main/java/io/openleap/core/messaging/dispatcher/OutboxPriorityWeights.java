@@ -0,0 +1,63 @@
+package io.openleap.core.messaging.dispatcher;
+
+import io.openleap.core.messaging.event.EventPriority;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weighted fair shares of a dispatch batch between {@link EventPriority priorities}.
+ * <p>
+ * Each priority with pending records gets a share of the capacity proportional to its weight, and at least one
+ * record while capacity lasts, so a backlog of low-priority records keeps moving under sustained high-priority
+ * traffic. Capacity a priority leaves unused goes to the others in the next round.
+ */
+public class OutboxPriorityWeights {
+
+    private final Map<EventPriority, Integer> weights = new EnumMap<>(EventPriority.class);
+
+    /**
+     * @param weights weight per priority; priorities without an entry get weight {@code 1}
+     */
+    public OutboxPriorityWeights(Map<EventPriority, Integer> weights) {
+        for (EventPriority priority : EventPriority.values()) {
+            int weight = weights.getOrDefault(priority, 1);
+            if (weight < 1) {
+                throw new IllegalArgumentException("Weight of priority " + priority + " must be at least 1, was " + weight);
+            }
+            this.weights.put(priority, weight);
+        }
+    }
+
+    /**
+     * @return all priorities, highest first
+     */
+    public List<EventPriority> priorities() {
+        return List.of(EventPriority.values());
+    }
+
+    /**
+     * Splits {@code capacity} between the given priorities. Rounding leftovers go to the highest priority.
+     *
+     * @return share per priority, {@code 0} for priorities that get nothing this round
+     */
+    public Map<EventPriority, Integer> shares(Collection<EventPriority> active, int capacity) {
+        Map<EventPriority, Integer> shares = new EnumMap<>(EventPriority.class);
+        long total = active.stream().mapToLong(weights::get).sum();
+        int left = capacity;
+        for (EventPriority priority : EventPriority.values()) {
+            if (!active.contains(priority)) {
+                continue;
+            }
+            int share = (int) Math.min(left, Math.max(1, (long) capacity * weights.get(priority) / total));
+            shares.put(priority, share);
+            left -= share;
+        }
+        if (left > 0 && !shares.isEmpty()) {
+            shares.merge(shares.keySet().iterator().next(), left, Integer::sum);
+        }
+        return shares;
+    }
+}
@@ -0,0 +1,110 @@
+package io.openleap.core.messaging.dispatcher;
+
+import io.openleap.core.messaging.TopicPattern;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limits for outbox dispatch, one bucket per rule, shared by all dispatch paths of a node.
+ * <p>
+ * A rule applies to one exchange (or every exchange when {@code exchange} is {@code null} or {@code *}) and a
+ * routing-key pattern with the wildcards of RabbitMQ topic bindings: {@code *} matches exactly one word,
+ * {@code #} zero or more. The first matching rule wins; events matching no rule are never limited.
+ * <p>
+ * A throttled event gets a delay until a token will be free for it. Consecutive throttled events of the same
+ * bucket get consecutive slots, so a deferred backlog comes back spread at the configured rate instead of as
+ * another burst.
+ */
+public class OutboxRateLimiter {
+
+    public record Rule(String exchange, String routingKey, double permitsPerSecond, int burst) {
+    }
+
+    private final List<Bucket> buckets;
+
+    private final AtomicLong earliestDeferral = new AtomicLong(Long.MAX_VALUE);
+
+    public OutboxRateLimiter(List<Rule> rules) {
+        long now = System.nanoTime();
+        this.buckets = rules.stream()
+                .filter(rule -> rule.permitsPerSecond() > 0)
+                .map(rule -> new Bucket(rule, now))
+                .toList();
+    }
+
+    /**
+     * Takes a token for an event of the given route.
+     *
+     * @return {@code 0} if the event may be dispatched now, otherwise the delay in milliseconds after which it should be retried
+     */
+    public long tryAcquire(String exchange, String routingKey) {
+        for (Bucket bucket : buckets) {
+            if (bucket.matches(exchange, routingKey)) {
+                long now = System.nanoTime();
+                long delay = bucket.tryAcquire(now);
+                if (delay == 0) {
+                    return 0;
+                }
+                earliestDeferral.accumulateAndGet(now + delay, Math::min);
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(delay));
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns and resets the delay until the earliest event deferred since the last call becomes due,
+     * so the dispatcher can schedule its next pass for that moment.
+     *
+     * @return delay in milliseconds, or {@code -1} if nothing has been deferred
+     */
+    public long takeEarliestDeferral() {
+        long slot = earliestDeferral.getAndSet(Long.MAX_VALUE);
+        if (slot == Long.MAX_VALUE) {
+            return -1;
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(slot - System.nanoTime()));
+    }
+
+    private static final class Bucket {
+
+        private final Rule rule;
+        private final double capacity;
+        private final long nanosPerPermit;
+
+        private double tokens;
+        private long refilledAt;
+        private long lastDeferredSlot;
+
+        private Bucket(Rule rule, long now) {
+            this.rule = rule;
+            this.capacity = rule.burst() > 0 ? rule.burst() : Math.max(1, Math.ceil(rule.permitsPerSecond()));
+            this.nanosPerPermit = (long) (TimeUnit.SECONDS.toNanos(1) / rule.permitsPerSecond());
+            this.tokens = capacity;
+            this.refilledAt = now;
+            this.lastDeferredSlot = now - nanosPerPermit;
+        }
+
+        private boolean matches(String exchange, String routingKey) {
+            boolean anyExchange = rule.exchange() == null || rule.exchange().isBlank() || rule.exchange().equals("*");
+            return (anyExchange || rule.exchange().equals(exchange)) && TopicPattern.matches(rule.routingKey(), routingKey);
+        }
+
+        /**
+         * @return {@code 0} if a token was taken, otherwise the delay in nanoseconds until the retry slot
+         */
+        private synchronized long tryAcquire(long now) {
+            tokens = Math.min(capacity, tokens + (double) (now - refilledAt) / nanosPerPermit);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            long tokenAt = now + (long) ((1 - tokens) * nanosPerPermit);
+            lastDeferredSlot = Math.max(tokenAt, lastDeferredSlot + nanosPerPermit);
+            return Math.max(1, lastDeferredSlot - now);
+        }
+    }
+}
@@ -3,52 +3,161 @@ package io.openleap.core.messaging.dispatcher.rabbitmq;
 import io.openleap.core.messaging.dispatcher.DispatchResult;
 import io.openleap.core.messaging.dispatcher.OutboxDispatcher;
 import io.openleap.core.messaging.entity.OutboxEvent;
+import io.openleap.core.messaging.entity.OutboxHeaders;
+import io.openleap.core.messaging.service.OutboxMetrics;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.AmqpIOException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
 import org.springframework.util.Assert;
+import tools.jackson.databind.ObjectReader;
 import tools.jackson.databind.json.JsonMapper;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 public class RabbitMqOutboxDispatcher implements OutboxDispatcher {
 
     private final RabbitTemplate rabbitTemplate;
-    private final JsonMapper jsonMapper;
+    private final ObjectReader headersReader;
     private final long confirmTimeoutMillis;
+    private final OutboxMetrics outboxMetrics;
 
     public RabbitMqOutboxDispatcher(RabbitTemplate rabbitTemplate,
                                     JsonMapper jsonMapper,
-                                    long confirmTimeoutMillis) {
+                                    long confirmTimeoutMillis,
+                                    OutboxMetrics outboxMetrics) {
         this.rabbitTemplate = rabbitTemplate;
-        this.jsonMapper = jsonMapper;
+        this.headersReader = jsonMapper.readerFor(Map.class);
         this.confirmTimeoutMillis = confirmTimeoutMillis;
+        this.outboxMetrics = outboxMetrics;
+    }
+
+    /**
+     * @deprecated the auto-configuration wires this bean; construct it with all collaborators instead
+     */
+    @Deprecated
+    public RabbitMqOutboxDispatcher(RabbitTemplate rabbitTemplate,
+                                    JsonMapper jsonMapper,
+                                    long confirmTimeoutMillis) {
+        this(rabbitTemplate, jsonMapper, confirmTimeoutMillis, null);
     }
 
     @Override
     public DispatchResult dispatch(OutboxEvent event) throws Exception {
+        CorrelationData cd;
+        try {
+            cd = publish(event);
+        } catch (AmqpConnectException | AmqpIOException | AmqpTimeoutException e) {
+            return DispatchResult.unavailable(e.getMessage());
+        }
+        // TODO (itaseski): Consider handling interrupted and execution exceptions separately,
+        //  as they may indicate different issues (e.g., thread interruption vs. execution failure)
+        return awaitConfirm(cd, deadline());
+    }
+
+    /**
+     * Publishes the whole window first and only then collects the confirms, so the window costs
+     * roughly one broker round-trip instead of one per event. All confirms share one deadline.
+     */
+    @Override
+    public List<DispatchResult> dispatchAll(List<OutboxEvent> events) {
+        DispatchResult[] results = new DispatchResult[events.size()];
+        CorrelationData[] confirms = new CorrelationData[events.size()];
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                confirms[i] = publish(events.get(i));
+            } catch (AmqpConnectException | AmqpIOException | AmqpTimeoutException e) {
+                results[i] = DispatchResult.unavailable(e.getMessage());
+            } catch (Exception e) {
+                results[i] = DispatchResult.fail(e.getMessage());
+            }
+        }
+
+        long deadline = deadline();
+        for (int i = 0; i < events.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            try {
+                results[i] = awaitConfirm(confirms[i], deadline);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results[i] = DispatchResult.fail("Interrupted while awaiting confirm");
+            } catch (ExecutionException e) {
+                results[i] = DispatchResult.fail(String.valueOf(e.getCause()));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private CorrelationData publish(OutboxEvent event) {
         Assert.notNull(event.getId(), "OutboxEvent ID must not be null");
-        Object payload = jsonMapper.readValue(event.getPayloadJson(), Object.class);
-        Map<String, Object> headers = parseHeaders(event.getHeadersJson());
+        Message message = toMessage(event);
         CorrelationData cd = new CorrelationData(event.getId().toString());
+        if (outboxMetrics != null) {
+            long publishedAt = System.nanoTime();
+            cd.getFuture().whenComplete((confirm, ex) -> outboxMetrics.recordConfirmLatency(
+                    event.getExchangeKey(), event.getRoutingKey(), System.nanoTime() - publishedAt));
+        }
 
-        rabbitTemplate.convertAndSend(event.getExchangeKey(), event.getRoutingKey(), payload, message -> {
-            message.getMessageProperties().setHeaders(headers);
-            // Do not force contentType here; let the MessageConverter decide (JSON or Avro)
-            return message;
-        }, cd);
+        rabbitTemplate.send(event.getExchangeKey(), event.getRoutingKey(), message, cd);
+        return cd;
+    }
 
+    /**
+     * The payload column already holds the serialized JSON, so its bytes become the message body as they are
+     * instead of going through a parse and a second serialization in the message converter. Payloads of binary
+     * codecs are sent the same way, with their content type. Headers are decoded from their pre-encoded
+     * {@link OutboxHeaders} form; only rows written before it existed still parse their JSON headers.
+     */
+    private Message toMessage(OutboxEvent event) {
+        MessageProperties properties = new MessageProperties();
+        byte[] body;
+        if (event.getPayloadBytes() != null) {
+            body = event.getPayloadBytes();
+            properties.setContentType(event.getContentType());
+        } else {
+            body = event.getPayloadJson().getBytes(StandardCharsets.UTF_8);
+            properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+            properties.setContentEncoding(StandardCharsets.UTF_8.name());
+            // Same type id the JSON converter used to write for the generic payload, untyped consumers keep working
+            properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, LinkedHashMap.class.getName());
+        }
+        properties.setContentLength(body.length);
+        if (event.getHeadersBytes() != null) {
+            OutboxHeaders.decode(event.getHeadersBytes(), properties::setHeader);
+        } else {
+            // Rows written before headers were stored pre-encoded
+            parseHeaders(event.getHeadersJson()).forEach(properties::setHeader);
+        }
+        return new Message(body, properties);
+    }
+
+    private long deadline() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMillis);
+    }
+
+    private DispatchResult awaitConfirm(CorrelationData cd, long deadlineNanos) throws InterruptedException, ExecutionException {
         CorrelationData.Confirm confirm;
         try {
-            confirm = cd.getFuture().get(confirmTimeoutMillis, TimeUnit.MILLISECONDS);
+            long remaining = Math.max(0L, deadlineNanos - System.nanoTime());
+            confirm = cd.getFuture().get(remaining, TimeUnit.NANOSECONDS);
         } catch (TimeoutException e) {
-            confirm = new CorrelationData.Confirm(false, "No confirm (timeout)");
+            // No confirm at all means the broker did not get to the message, not that it rejected it
+            return DispatchResult.unavailable("No confirm (timeout)");
         }
-        // TODO (itaseski): Consider handling interrupted and execution exceptions separately,
-        //  as they may indicate different issues (e.g., thread interruption vs. execution failure)
 
         if (confirm.ack()) {
             return DispatchResult.ok();
@@ -60,13 +169,12 @@ public class RabbitMqOutboxDispatcher implements OutboxDispatcher {
     }
 
     // TODO (itaseski): Null handling seems dubious
-    @SuppressWarnings("unchecked")
     private Map<String, Object> parseHeaders(String json) {
         if (json == null || json.isBlank()) {
             return Collections.emptyMap();
         }
         try {
-            return jsonMapper.readValue(json, HashMap.class);
+            return headersReader.readValue(json);
         } catch (Exception e) {
             return Collections.emptyMap();
         }
@@ -0,0 +1,45 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.entity;
+
+import io.openleap.core.messaging.event.EventPriority;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores an {@link EventPriority} by its lowercase {@link EventPriority#value()}, the form the native claim
+ * queries and the {@code priority} index use.
+ */
+@Converter
+public class EventPriorityConverter implements AttributeConverter<EventPriority, String> {
+
+    @Override
+    public String convertToDatabaseColumn(EventPriority priority) {
+        return priority == null ? null : priority.value();
+    }
+
+    @Override
+    public EventPriority convertToEntityAttribute(String value) {
+        return value == null ? null : EventPriority.fromValue(value);
+    }
+}
@@ -0,0 +1,27 @@
+package io.openleap.core.messaging.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Key of an {@link InboxMessage}: the same event may be consumed once per queue.
+ */
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class InboxMessageId implements Serializable {
+
+    @Column(nullable = false, length = 256)
+    private String consumer;
+
+    @Column(nullable = false, length = 64)
+    private String eventId;
+}
@@ -25,8 +25,10 @@ package io.openleap.core.messaging.entity;
 
 
 import io.openleap.core.common.domain.DomainEntity;
+import io.openleap.core.messaging.event.EventPriority;
 import io.openleap.core.persistence.entity.AuditableEntity;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
@@ -69,14 +71,58 @@ public class OutboxEvent extends AuditableEntity implements DomainEntity<OutboxE
     @Column
     private Instant nextAttemptAt;
 
+    /**
+     * Earliest time the record may be dispatched, {@code null} for immediate delivery.
+     */
+    @Column
+    private Instant deliverAt;
+
     @Column(length = 4000)
     private String lastError;
 
+    /**
+     * Dispatch priority; batches are shared between priorities by their configured weights.
+     */
+    @Convert(converter = EventPriorityConverter.class)
+    @Column(nullable = false, length = 16)
+    private EventPriority priority = EventPriority.NORMAL;
+
+    /**
+     * Payload of events encoded as JSON; {@code null} when the payload is held in {@link #payloadBytes}.
+     */
     @JdbcTypeCode(SqlTypes.JSON)
-    @Column(nullable = false, columnDefinition = "jsonb")
+    @Column(columnDefinition = "jsonb")
     private String payloadJson;
 
+    /**
+     * Payload encoded by a binary codec, sent to the broker as it is.
+     */
+    @Column
+    private byte[] payloadBytes;
+
+    /**
+     * MIME type of {@link #payloadBytes}; {@code null} for JSON payloads.
+     */
+    @Column(length = 128)
+    private String contentType;
+
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(columnDefinition = "jsonb")
     private String headersJson;
+
+    /**
+     * The same headers in the form of {@link OutboxHeaders}, sent without a JSON parse; {@code null} on rows
+     * written before the column existed.
+     */
+    @Column
+    private byte[] headersBytes;
+
+    /**
+     * Events with the same ordering key are dispatched in order when running in {@code ordered} mode.
+     */
+    @Column(length = 256)
+    private String orderingKey;
+
+    @Column(nullable = false)
+    private int lane;
 }
@@ -0,0 +1,89 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.entity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Compact binary form of the message headers stored in {@link OutboxEvent#getHeadersBytes()}: the number of
+ * entries, then every key and value as length-prefixed UTF-8. The dispatcher reads it on every publish
+ * without going through a JSON parser.
+ */
+public final class OutboxHeaders {
+
+    private OutboxHeaders() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static byte[] encode(Map<String, String> headers) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * headers.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(headers.size());
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                writeString(out, header.getKey());
+                writeString(out, header.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Hands every encoded header to {@code consumer} in the order it was written.
+     */
+    public static void decode(byte[] encoded, BiConsumer<String, String> consumer) {
+        ByteBuffer in = ByteBuffer.wrap(encoded);
+        int count = in.getInt();
+        for (int i = 0; i < count; i++) {
+            consumer.accept(readString(in), readString(in));
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
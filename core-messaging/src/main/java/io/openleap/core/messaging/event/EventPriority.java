@@ -0,0 +1,55 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.event;
+
+/**
+ * Dispatch priority of an outbox record. The dispatcher shares each batch between priorities by their configured
+ * weights, so higher priorities overtake a backlog of lower ones without starving it.
+ */
+public enum EventPriority {
+    HIGH("high"),
+    NORMAL("normal"),
+    LOW("low");
+
+    private final String value;
+
+    EventPriority(String value) {
+        this.value = value;
+    }
+
+    /**
+     * @return the value stored in the {@code priority} column of the outbox and used as metric tag
+     */
+    public String value() {
+        return value;
+    }
+
+    public static EventPriority fromValue(String value) {
+        for (EventPriority priority : values()) {
+            if (priority.value.equals(value)) {
+                return priority;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event priority: " + value);
+    }
+}
@@ -25,11 +25,17 @@ package io.openleap.core.messaging.event;
 import io.openleap.core.common.util.UuidUtils;
 import io.openleap.core.messaging.MessageCoverageTracker;
 import io.openleap.core.messaging.RoutingKey;
+import io.openleap.core.messaging.codec.EventCodec;
+import io.openleap.core.messaging.codec.EventCodecs;
 import io.openleap.core.messaging.config.MessagingProperties;
 import io.openleap.core.messaging.entity.OutboxEvent;
 import io.openleap.core.messaging.entity.OutboxEventId;
+import io.openleap.core.messaging.entity.OutboxHeaders;
 import io.openleap.core.messaging.repository.OutboxRepository;
+import io.openleap.core.messaging.service.OutboxDirectPublisher;
+import io.openleap.core.messaging.service.OutboxNotifier;
 import io.openleap.core.messaging.service.OutboxOrchestrator;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
@@ -37,19 +43,41 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 import tools.jackson.databind.json.JsonMapper;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Transactional messaging publisher that writes to the Outbox table.
  * A separate dispatcher will forward records to RabbitMQ.
+ * <p>
+ * Inside a transaction, records are buffered and written in JDBC batches right before commit, and the
+ * dispatcher is woken up once per transaction rather than once per event. With an {@link OutboxDirectPublisher} the
+ * rows of a transaction are instead published right after commit, and the dispatcher only handles what that
+ * fast path could not confirm.
+ * <p>
+ * Events enqueued with {@code enqueueAt} are stored right away but not dispatched before their delivery time.
+ * An {@link EventPriority} lets time-critical events overtake bulk traffic enqueued before them.
+ * <p>
+ * Payloads are written as JSON unless {@link EventCodecs} select a binary codec for the routing key; such rows
+ * hold the encoded bytes and their content type instead.
  */
 public class EventPublisher {
 
+    /**
+     * Header that overrides the ordering key derived from the aggregate.
+     */
+    public static final String ORDERING_KEY_HEADER = "x-ordering-key";
+
     private final OutboxRepository outboxRepository;
     private final JsonMapper jsonMapper;
     private final OutboxOrchestrator outboxOrchestrator;
     private final MessageCoverageTracker coverageTracker;
+    private final OutboxNotifier outboxNotifier;
+    private final OutboxDirectPublisher directPublisher;
+    private final EventCodecs codecs;
 
     private boolean coverageEnabled;
 
@@ -57,26 +85,54 @@ public class EventPublisher {
 
     private String eventsExchange;
 
+    private int writeBatchSize = 50;
+
+    private int lanes = 16;
+
     @Autowired
     public EventPublisher(MessagingProperties config,
                           OutboxRepository outboxRepository,
                           JsonMapper jsonMapper,
                           OutboxOrchestrator outboxOrchestrator,
-                          Optional<MessageCoverageTracker> coverageTracker) {
+                          Optional<MessageCoverageTracker> coverageTracker,
+                          Optional<OutboxNotifier> outboxNotifier,
+                          Optional<OutboxDirectPublisher> directPublisher,
+                          Optional<EventCodecs> codecs) {
         this.outboxRepository = outboxRepository;
         this.jsonMapper = jsonMapper;
         this.outboxOrchestrator = outboxOrchestrator;
         this.coverageTracker = coverageTracker.orElse(null);
+        this.outboxNotifier = outboxNotifier.orElse(null);
+        this.directPublisher = directPublisher.orElse(null);
+        this.codecs = codecs.orElse(null);
         if (config != null && config.getOutbox() != null) {
             this.coverageEnabled = config.isCoverage();
             this.wakeupAfterCommit = config.getOutbox().getDispatcher().isWakeupAfterCommit();
             this.eventsExchange = config.getEventsExchange();
+            this.writeBatchSize = config.getOutbox().getWriteBatchSize();
+            this.lanes = config.getOutbox().getDispatcher().getLanes();
         }
     }
 
-    // Backwards-compatible constructor for tests or contexts that don't need immediate dispatch
+    /**
+     * @deprecated the auto-configuration wires the publisher; construct it with all collaborators instead
+     */
+    @Deprecated
+    public EventPublisher(MessagingProperties config,
+                          OutboxRepository outboxRepository,
+                          JsonMapper jsonMapper,
+                          OutboxOrchestrator outboxOrchestrator,
+                          Optional<MessageCoverageTracker> coverageTracker) {
+        this(config, outboxRepository, jsonMapper, outboxOrchestrator, coverageTracker, Optional.empty(), Optional.empty(),
+                Optional.empty());
+    }
+
+    /**
+     * @deprecated the auto-configuration wires the publisher; construct it with all collaborators instead
+     */
+    @Deprecated
     public EventPublisher(MessagingProperties config, OutboxRepository outboxRepository, JsonMapper jsonMapper) {
-        this(config, outboxRepository, jsonMapper, null, Optional.empty());
+        this(config, outboxRepository, jsonMapper, null, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
     }
 
     @Transactional
@@ -89,7 +145,49 @@ public class EventPublisher {
         this.enqueueInternal(exchangeKey, routingKey, domainEvent, headers);
     }
 
+    /**
+     * Enqueues an event with the given dispatch priority.
+     */
+    @Transactional
+    public void enqueue(EventPriority priority, RoutingKey routingKey, DomainEvent domainEvent, Map<String, String> headers) {
+        this.enqueueInternal(eventsExchange, routingKey, domainEvent, headers, null, priority);
+    }
+
+    @Transactional
+    public void enqueue(EventPriority priority, String exchangeKey, RoutingKey routingKey, DomainEvent domainEvent, Map<String, String> headers) {
+        this.enqueueInternal(exchangeKey, routingKey, domainEvent, headers, null, priority);
+    }
+
+    /**
+     * Enqueues an event that is not dispatched before {@code deliverAt}. A time in the past means right away.
+     */
+    @Transactional
+    public void enqueueAt(Instant deliverAt, RoutingKey routingKey, DomainEvent domainEvent, Map<String, String> headers) {
+        this.enqueueInternal(eventsExchange, routingKey, domainEvent, headers, deliverAt, EventPriority.NORMAL);
+    }
+
+    @Transactional
+    public void enqueueAt(Instant deliverAt, String exchangeKey, RoutingKey routingKey, DomainEvent domainEvent, Map<String, String> headers) {
+        this.enqueueInternal(exchangeKey, routingKey, domainEvent, headers, deliverAt, EventPriority.NORMAL);
+    }
+
+    /**
+     * Enqueues several events in the current transaction. All rows are inserted together at commit time.
+     */
+    @Transactional
+    public void enqueueAll(List<OutgoingEvent> events) {
+        for (OutgoingEvent event : events) {
+            String exchangeKey = event.exchangeKey() != null ? event.exchangeKey() : eventsExchange;
+            this.enqueueInternal(exchangeKey, event.routingKey(), event.domainEvent(), event.headers(), null, event.priority());
+        }
+    }
+
     public void enqueueInternal(String exchangeKey, RoutingKey routingKey, DomainEvent domainEvent, Map<String, String> headers) {
+        this.enqueueInternal(exchangeKey, routingKey, domainEvent, headers, null, EventPriority.NORMAL);
+    }
+
+    private void enqueueInternal(String exchangeKey, RoutingKey routingKey, DomainEvent domainEvent, Map<String, String> headers,
+                                 Instant deliverAt, EventPriority priority) {
         try {
             // Enrich headers with traceId and eventId if missing
             Map<String, String> hdrs = headers == null ? new java.util.HashMap<>() : new java.util.HashMap<>(headers);
@@ -107,26 +205,37 @@ public class EventPublisher {
             e.setPublished(false);
             e.setAttempts(0);
             e.setNextAttemptAt(null);
-            e.setPayloadJson(jsonMapper.writeValueAsString(domainEvent));
+            e.setDeliverAt(deliverAt);
+            e.setPriority(priority != null ? priority : EventPriority.NORMAL);
+            EventCodec codec = codecs != null ? codecs.forRoutingKey(routingKey) : null;
+            if (codec == null || codec.contentType().equals(MessageProperties.CONTENT_TYPE_JSON)) {
+                e.setPayloadJson(jsonMapper.writeValueAsString(domainEvent));
+            } else {
+                e.setPayloadBytes(codec.encode(domainEvent, routingKey));
+                e.setContentType(codec.contentType());
+            }
             e.setHeadersJson(hdrs.isEmpty() ? null : jsonMapper.writeValueAsString(hdrs));
-            outboxRepository.save(e);
+            e.setHeadersBytes(hdrs.isEmpty() ? null : OutboxHeaders.encode(hdrs));
+            String orderingKey = orderingKey(domainEvent, hdrs);
+            e.setOrderingKey(orderingKey);
+            e.setLane(orderingKey != null
+                    ? Math.floorMod(orderingKey.hashCode(), lanes)
+                    : ThreadLocalRandom.current().nextInt(lanes));
 
             // Record coverage with the actual configured exchange + routing key (if enabled)
             if (coverageEnabled && coverageTracker != null) {
                 coverageTracker.recordSentMessage(exchangeKey, routingKey.key());
             }
 
-            // Immediately trigger dispatch after the transaction commits (if enabled and dispatcher available)
-            if (wakeupAfterCommit && outboxOrchestrator != null) {
-                if (TransactionSynchronizationManager.isSynchronizationActive()) {
-                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-                        @Override
-                        public void afterCommit() {
-                            outboxOrchestrator.wakeup();
-                        }
-                    });
-                } else {
-                    // Fallback: no active transaction (shouldn't happen due to @Transactional)
+            if (TransactionSynchronizationManager.isSynchronizationActive()
+                    && TransactionSynchronizationManager.isActualTransactionActive()) {
+                currentBuffer().add(e);
+            } else {
+                // Fallback: no active transaction (shouldn't happen due to @Transactional)
+                outboxRepository.save(e);
+                if (outboxOrchestrator != null && isScheduled(e)) {
+                    outboxOrchestrator.wakeupAt(deliverAt);
+                } else if (wakeupAfterCommit && outboxOrchestrator != null) {
                     outboxOrchestrator.execute();
                 }
             }
@@ -134,4 +243,102 @@ public class EventPublisher {
             throw new org.springframework.web.server.ResponseStatusException(org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR, "EVENT_ENQUEUE_FAILED");
         }
     }
+
+    private static String orderingKey(DomainEvent domainEvent, Map<String, String> headers) {
+        String explicit = headers.get(ORDERING_KEY_HEADER);
+        if (explicit != null && !explicit.isBlank()) {
+            return explicit;
+        }
+        if (domainEvent == null || domainEvent.getAggregateId() == null) {
+            return null;
+        }
+        return domainEvent.getAggregateType() == null
+                ? domainEvent.getAggregateId()
+                : domainEvent.getAggregateType() + ":" + domainEvent.getAggregateId();
+    }
+
+    private static boolean isScheduled(OutboxEvent e) {
+        return e.getDeliverAt() != null && e.getDeliverAt().isAfter(Instant.now());
+    }
+
+    private List<OutboxEvent> currentBuffer() {
+        OutboxWriteBuffer buffer = (OutboxWriteBuffer) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            buffer = new OutboxWriteBuffer();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(buffer);
+        }
+        return buffer.events;
+    }
+
+    /**
+     * Collects the outbox rows of one transaction, writes them in one go before commit and
+     * triggers a single dispatcher wakeup after commit. Scheduled rows instead request a pass at the
+     * earliest delivery time.
+     */
+    private class OutboxWriteBuffer implements TransactionSynchronization {
+
+        private final List<OutboxEvent> events = new ArrayList<>();
+
+        // Rows due now, and those of them leased to the direct publisher
+        private List<OutboxEvent> due = List.of();
+        private List<OutboxEvent> direct = List.of();
+
+        private Instant earliestDelivery;
+
+        // Hide the buffer from nested REQUIRES_NEW transactions, they get their own
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EventPublisher.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(EventPublisher.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            due = new ArrayList<>(events.size());
+            for (OutboxEvent e : events) {
+                if (!isScheduled(e)) {
+                    due.add(e);
+                } else if (earliestDelivery == null || e.getDeliverAt().isBefore(earliestDelivery)) {
+                    earliestDelivery = e.getDeliverAt();
+                }
+            }
+            if (directPublisher != null && !due.isEmpty() && directPublisher.isAvailable()) {
+                directPublisher.lease(due);
+                direct = due;
+            }
+            outboxRepository.insertAll(events, writeBatchSize);
+            // Wakes the dispatchers of all nodes once this transaction commits; leased rows are not theirs to take,
+            // scheduled rows let the leader plan its next pass
+            if (outboxNotifier != null && direct.size() < events.size()) {
+                outboxNotifier.notifyOnCommit();
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            if (!direct.isEmpty()) {
+                directPublisher.publishAfterCommit(List.copyOf(direct));
+            }
+            if (outboxOrchestrator == null) {
+                return;
+            }
+            if (earliestDelivery != null) {
+                outboxOrchestrator.wakeupAt(earliestDelivery);
+            }
+            // Immediately trigger dispatch after the transaction commits (if enabled and dispatcher available)
+            if (wakeupAfterCommit && due.size() > direct.size()) {
+                outboxOrchestrator.wakeup();
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EventPublisher.this);
+        }
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.event;
+
+import io.openleap.core.messaging.RoutingKey;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * One entry of a batched {@link EventPublisher#enqueueAll} call. A {@code null} exchange key falls back
+ * to the configured events exchange, a {@code null} priority to {@link EventPriority#NORMAL}.
+ */
+public record OutgoingEvent(
+        String exchangeKey,
+        RoutingKey routingKey,
+        DomainEvent domainEvent,
+        Map<String, String> headers,
+        EventPriority priority
+) {
+
+    public OutgoingEvent {
+        Objects.requireNonNull(routingKey, "Routing key cannot be null");
+        if (priority == null) {
+            priority = EventPriority.NORMAL;
+        }
+    }
+
+    public OutgoingEvent(String exchangeKey, RoutingKey routingKey, DomainEvent domainEvent, Map<String, String> headers) {
+        this(exchangeKey, routingKey, domainEvent, headers, EventPriority.NORMAL);
+    }
+
+    public static OutgoingEvent of(RoutingKey routingKey, DomainEvent domainEvent) {
+        return new OutgoingEvent(null, routingKey, domainEvent, null);
+    }
+
+    public static OutgoingEvent of(RoutingKey routingKey, DomainEvent domainEvent, Map<String, String> headers) {
+        return new OutgoingEvent(null, routingKey, domainEvent, headers);
+    }
+
+    public static OutgoingEvent of(String exchangeKey, RoutingKey routingKey, DomainEvent domainEvent, Map<String, String> headers) {
+        return new OutgoingEvent(exchangeKey, routingKey, domainEvent, headers);
+    }
+
+    public OutgoingEvent withPriority(EventPriority priority) {
+        return new OutgoingEvent(exchangeKey, routingKey, domainEvent, headers, priority);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.repository;
+
+import io.openleap.core.messaging.entity.InboxMessage;
+import io.openleap.core.messaging.entity.InboxMessageId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface InboxRepository extends JpaRepository<InboxMessage, InboxMessageId> {
+
+    /**
+     * Records an event for a consumer unless it is already there. A concurrent insert of the same key waits for the
+     * other transaction and then reports the conflict, so exactly one of two parallel deliveries gets {@code 1}.
+     *
+     * @return {@code 1} if the event is new for this consumer, {@code 0} if it is a duplicate
+     */
+    @Modifying
+    @Query(value = """
+            insert into inbox (consumer, event_id, received_at)
+            values (:consumer, :eventId, CURRENT_TIMESTAMP)
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("consumer") String consumer, @Param("eventId") String eventId);
+
+    /**
+     * Deletes up to {@code limit} inbox records received more than {@code maxAgeSeconds} ago.
+     *
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query(value = """
+            delete from inbox
+            where (consumer, event_id) in (
+                select consumer, event_id from inbox
+                where received_at < CURRENT_TIMESTAMP - (:maxAgeSeconds * interval '1 second')
+                order by received_at
+                limit :limit
+                for update skip locked
+            )
+            """, nativeQuery = true)
+    int deleteReceivedBefore(@Param("maxAgeSeconds") long maxAgeSeconds, @Param("limit") int limit);
+}
@@ -23,17 +23,215 @@
 package io.openleap.core.messaging.repository;
 
 import io.openleap.core.messaging.entity.OutboxEvent;
+import io.openleap.core.messaging.event.EventPriority;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
-public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long>, OutboxRepositoryCustom {
 
-    @Query("select o from OutboxEvent o where o.published = false and (o.nextAttemptAt is null or o.nextAttemptAt <= CURRENT_TIMESTAMP) order by o.createdAt asc")
+    /**
+     * @deprecated loads the whole due backlog at once; use {@link #findPendingPage} and {@link #findPendingPageAfter}
+     */
+    @Deprecated
+    @Query("select o from OutboxEvent o where o.published = false and (o.nextAttemptAt is null or o.nextAttemptAt <= CURRENT_TIMESTAMP) and (o.deliverAt is null or o.deliverAt <= CURRENT_TIMESTAMP) order by o.createdAt asc")
     List<OutboxEvent> findPending();
 
-    // TODO (itaseski): Some methods do additional stream processing on the result.
-    //  Consider adding dedicated queries.
+    /**
+     * First keyset page of due, non-parked records ordered by {@code (createdAt, id)}.
+     */
+    @Query("select o from OutboxEvent o where o.published = false and o.attempts < :maxAttempts and (o.nextAttemptAt is null or o.nextAttemptAt <= CURRENT_TIMESTAMP) and (o.deliverAt is null or o.deliverAt <= CURRENT_TIMESTAMP) order by o.createdAt asc, o.id asc")
+    List<OutboxEvent> findPendingPage(@Param("maxAttempts") int maxAttempts, Limit limit);
+
+    /**
+     * Next keyset page of due, non-parked records strictly after the given {@code (createdAt, id)} cursor.
+     */
+    @Query("select o from OutboxEvent o where o.published = false and o.attempts < :maxAttempts and (o.nextAttemptAt is null or o.nextAttemptAt <= CURRENT_TIMESTAMP) and (o.deliverAt is null or o.deliverAt <= CURRENT_TIMESTAMP) and (o.createdAt > :createdAt or (o.createdAt = :createdAt and o.id > :id)) order by o.createdAt asc, o.id asc")
+    List<OutboxEvent> findPendingPageAfter(@Param("maxAttempts") int maxAttempts,
+                                           @Param("createdAt") Instant createdAt,
+                                           @Param("id") Long id,
+                                           Limit limit);
+
+    /**
+     * First keyset page of due, non-parked records of one priority.
+     */
+    @Query("select o from OutboxEvent o where o.priority = :priority and o.published = false and o.attempts < :maxAttempts and (o.nextAttemptAt is null or o.nextAttemptAt <= CURRENT_TIMESTAMP) and (o.deliverAt is null or o.deliverAt <= CURRENT_TIMESTAMP) order by o.createdAt asc, o.id asc")
+    List<OutboxEvent> findPendingPageByPriority(@Param("maxAttempts") int maxAttempts,
+                                                @Param("priority") EventPriority priority,
+                                                Limit limit);
+
+    /**
+     * Next keyset page of due, non-parked records of one priority strictly after the given cursor.
+     */
+    @Query("select o from OutboxEvent o where o.priority = :priority and o.published = false and o.attempts < :maxAttempts and (o.nextAttemptAt is null or o.nextAttemptAt <= CURRENT_TIMESTAMP) and (o.deliverAt is null or o.deliverAt <= CURRENT_TIMESTAMP) and (o.createdAt > :createdAt or (o.createdAt = :createdAt and o.id > :id)) order by o.createdAt asc, o.id asc")
+    List<OutboxEvent> findPendingPageByPriorityAfter(@Param("maxAttempts") int maxAttempts,
+                                                     @Param("priority") EventPriority priority,
+                                                     @Param("createdAt") Instant createdAt,
+                                                     @Param("id") Long id,
+                                                     Limit limit);
+
+    /**
+     * Claims due, non-parked records for the current transaction. Rows already locked by another
+     * transaction are skipped, so concurrent dispatchers never see the same record twice.
+     */
+    @Query(value = """
+            select * from outbox
+            where published = false
+              and attempts < :maxAttempts
+              and (next_attempt_at is null or next_attempt_at <= CURRENT_TIMESTAMP)
+              and (deliver_at is null or deliver_at <= CURRENT_TIMESTAMP)
+            order by created_at, id
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<OutboxEvent> claimPending(@Param("maxAttempts") int maxAttempts, @Param("limit") int limit);
+
+    /**
+     * Like {@link #claimPending}, restricted to one priority and to records after the given {@code (createdAt, id)}
+     * cursor. Rows locked by the current transaction are not skipped, so a further claim of the same priority
+     * has to start behind the last record claimed before.
+     */
+    @Query(value = """
+            select * from outbox
+            where priority = :priority
+              and published = false
+              and attempts < :maxAttempts
+              and (next_attempt_at is null or next_attempt_at <= CURRENT_TIMESTAMP)
+              and (deliver_at is null or deliver_at <= CURRENT_TIMESTAMP)
+              and (created_at > :createdAt or (created_at = :createdAt and id > :id))
+            order by created_at, id
+            limit :limit
+            for update skip locked
+            """, nativeQuery = true)
+    List<OutboxEvent> claimPendingByPriority(@Param("maxAttempts") int maxAttempts,
+                                             @Param("priority") String priority,
+                                             @Param("createdAt") Instant createdAt,
+                                             @Param("id") long id,
+                                             @Param("limit") int limit);
+
+    /**
+     * Takes the transaction-scoped advisory lock of a lane, so only one dispatcher in the cluster works on it.
+     */
+    @Query(value = "select pg_try_advisory_xact_lock(:namespace, :lane)", nativeQuery = true)
+    boolean tryLockLane(@Param("namespace") int namespace, @Param("lane") int lane);
+
+    /**
+     * Non-parked records of one lane in dispatch order, including those still backing off. Records scheduled for
+     * later do not hold the lane. Records written under a larger lane count belong to lane {@code lane mod lanes}.
+     */
+    @Query("select o from OutboxEvent o where (o.lane = :lane or (o.lane >= :lanes and mod(o.lane, :lanes) = :lane)) and o.published = false and o.attempts < :maxAttempts and (o.deliverAt is null or o.deliverAt <= CURRENT_TIMESTAMP) order by o.createdAt asc, o.id asc")
+    List<OutboxEvent> findLaneHead(@Param("lane") int lane,
+                                   @Param("lanes") int lanes,
+                                   @Param("maxAttempts") int maxAttempts,
+                                   Limit limit);
+
+    /**
+     * Marks the given records as published in one statement. Records already published are left untouched.
+     *
+     * @return number of records marked
+     */
+    @Modifying
+    @Query(value = """
+            update outbox
+            set published = true, next_attempt_at = null, last_error = null,
+                version = version + 1, updated_at = CURRENT_TIMESTAMP
+            where id in (:ids) and published = false
+            """, nativeQuery = true)
+    int markPublished(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Hands leased records back to the sweep from {@code at} on. Records already published are left untouched.
+     *
+     * @return number of records released
+     */
+    @Modifying
+    @Query(value = """
+            update outbox
+            set next_attempt_at = :at, version = version + 1, updated_at = CURRENT_TIMESTAMP
+            where id in (:ids) and published = false
+            """, nativeQuery = true)
+    int releaseLease(@Param("ids") Collection<Long> ids, @Param("at") Instant at);
+
+    /**
+     * Earliest future delivery time of a scheduled record, or {@code null} if none is scheduled.
+     */
+    @Query("select min(o.deliverAt) from OutboxEvent o where o.published = false and o.deliverAt > CURRENT_TIMESTAMP")
+    Instant findNextDeliverAt();
+
+    /**
+     * @deprecated loads every unpublished record; use {@link #countByPublishedFalse} or {@link #findParked}
+     */
+    @Deprecated
     List<OutboxEvent> findByPublishedFalse();
+
+    long countByPublishedFalse();
+
+    @Query("select count(o) from OutboxEvent o where o.published = false and o.attempts < :maxAttempts and (o.nextAttemptAt is null or o.nextAttemptAt <= CURRENT_TIMESTAMP) and (o.deliverAt is null or o.deliverAt <= CURRENT_TIMESTAMP)")
+    long countPending(@Param("maxAttempts") int maxAttempts);
+
+    @Query("select count(o) from OutboxEvent o where o.published = false and o.nextAttemptAt is null and o.attempts >= :maxAttempts")
+    long countParked(@Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Non-parked, unpublished records grouped by exchange and routing key, excluding those scheduled for later.
+     */
+    @Query("select new io.openleap.core.messaging.repository.OutboxRouteCount(o.exchangeKey, o.routingKey, count(o)) from OutboxEvent o where o.published = false and o.attempts < :maxAttempts and (o.deliverAt is null or o.deliverAt <= CURRENT_TIMESTAMP) group by o.exchangeKey, o.routingKey")
+    List<OutboxRouteCount> countBacklogByRoute(@Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Non-parked, unpublished records grouped by priority, excluding those scheduled for later.
+     */
+    @Query("select new io.openleap.core.messaging.repository.OutboxPriorityCount(o.priority, count(o)) from OutboxEvent o where o.published = false and o.attempts < :maxAttempts and (o.deliverAt is null or o.deliverAt <= CURRENT_TIMESTAMP) group by o.priority")
+    List<OutboxPriorityCount> countBacklogByPriority(@Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Parked records grouped by exchange and routing key.
+     */
+    @Query("select new io.openleap.core.messaging.repository.OutboxRouteCount(o.exchangeKey, o.routingKey, count(o)) from OutboxEvent o where o.published = false and o.nextAttemptAt is null and o.attempts >= :maxAttempts group by o.exchangeKey, o.routingKey")
+    List<OutboxRouteCount> countParkedByRoute(@Param("maxAttempts") int maxAttempts);
+
+    @Query("select o from OutboxEvent o where o.published = false and o.nextAttemptAt is null and o.attempts >= :maxAttempts order by o.createdAt asc, o.id asc")
+    List<OutboxEvent> findParked(@Param("maxAttempts") int maxAttempts, Limit limit);
+
+    /**
+     * Resets up to {@code limit} parked records, oldest first, so the dispatcher retries them immediately.
+     *
+     * @return number of records scheduled for replay
+     */
+    @Modifying
+    @Query(value = """
+            update outbox
+            set attempts = 0, next_attempt_at = CURRENT_TIMESTAMP, last_error = null,
+                version = version + 1, updated_at = CURRENT_TIMESTAMP
+            where id in (select id from outbox
+                         where published = false and next_attempt_at is null and attempts >= :maxAttempts
+                         order by created_at, id
+                         limit :limit
+                         for update skip locked)
+            """, nativeQuery = true)
+    int replayParked(@Param("maxAttempts") int maxAttempts, @Param("limit") int limit);
+
+    /**
+     * Deletes up to {@code limit} published records last updated more than {@code maxAgeSeconds} ago,
+     * oldest first. Rows locked by a concurrent purge on another node are skipped.
+     *
+     * @return number of deleted records
+     */
+    @Modifying
+    @Query(value = """
+            delete from outbox
+            where id in (select id from outbox
+                         where published = true
+                           and updated_at < CURRENT_TIMESTAMP - (:maxAgeSeconds * interval '1 second')
+                         order by updated_at
+                         limit :limit
+                         for update skip locked)
+            """, nativeQuery = true)
+    int deletePublishedBefore(@Param("maxAgeSeconds") long maxAgeSeconds, @Param("limit") int limit);
 }
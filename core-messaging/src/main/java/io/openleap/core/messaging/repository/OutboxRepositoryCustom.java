@@ -0,0 +1,41 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.repository;
+
+import io.openleap.core.messaging.entity.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxRepositoryCustom {
+
+    /**
+     * Persists and flushes the given records using JDBC batches of {@code batchSize} statements.
+     */
+    void insertAll(List<OutboxEvent> events, int batchSize);
+
+    /**
+     * Issues {@code NOTIFY} on the given channel within the current transaction. Postgres delivers it
+     * to listeners only when the transaction commits.
+     */
+    void notifyChannel(String channel);
+}
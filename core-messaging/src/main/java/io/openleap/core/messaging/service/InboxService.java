@@ -0,0 +1,144 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.service;
+
+import io.openleap.core.messaging.config.MessagingProperties;
+import io.openleap.core.messaging.repository.InboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Consumer-side deduplication backed by the {@code inbox} table.
+ * <p>
+ * {@link #handleOnce} inserts the {@code (consumer, eventId)} key and runs the handler in the same transaction, so
+ * the key is only kept if the handler commits, and its database work joins that transaction. The insert doubles as
+ * the duplicate check, a first-seen event costs no extra lookup. A bounded LRU of recently handled keys sits in
+ * front of the table and lets the frequent case of a redelivery shortly after the first delivery be acked without
+ * opening a transaction at all. The LRU only ever answers "duplicate"; a miss always goes to the table.
+ */
+@Slf4j
+public class InboxService {
+
+    @FunctionalInterface
+    public interface Handler {
+        Object handle() throws Throwable;
+    }
+
+    private final InboxRepository inboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MessagingProperties.Inbox inbox;
+    private final Map<String, Boolean> recentlyHandled;
+
+    public InboxService(InboxRepository inboxRepository,
+                        TransactionTemplate transactionTemplate,
+                        MessagingProperties.Inbox inbox) {
+        this.inboxRepository = inboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.inbox = inbox;
+        int cacheSize = inbox.getCacheSize();
+        this.recentlyHandled = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Runs {@code handler} unless the event has already been handled by {@code consumer}.
+     *
+     * @return {@code true} if the handler ran, {@code false} for a duplicate
+     */
+    public boolean handleOnce(String consumer, String eventId, Handler handler) throws Throwable {
+        String key = consumer + '\u0000' + eventId;
+        if (recentlyHandled.containsKey(key)) {
+            log.debug("[Inbox] Duplicate eventId={} for {} (cached)", eventId, consumer);
+            return false;
+        }
+        Outcome outcome = transactionTemplate.execute(status -> {
+            if (inboxRepository.insertIfAbsent(consumer, eventId) == 0) {
+                return Outcome.DUPLICATE;
+            }
+            try {
+                handler.handle();
+                return Outcome.HANDLED;
+            } catch (Throwable t) {
+                // Rolls back the inbox row together with the handler's work, so a redelivery runs it again
+                status.setRollbackOnly();
+                return new Outcome(false, t);
+            }
+        });
+        if (outcome.failure() != null) {
+            throw outcome.failure();
+        }
+        recentlyHandled.put(key, Boolean.TRUE);
+        if (!outcome.handled()) {
+            log.debug("[Inbox] Duplicate eventId={} for {}", eventId, consumer);
+        }
+        return outcome.handled();
+    }
+
+    @Scheduled(fixedDelayString = "${ol.messaging.inbox.purge-interval:3600000}")
+    public void scheduledPurge() {
+        try {
+            purgeExpired();
+        } catch (Exception e) {
+            log.error("[Inbox] Retention purge failed: {}", e.toString());
+        }
+    }
+
+    /**
+     * Deletes inbox records older than {@code retention}, chunk by chunk. Redeliveries arriving after that are no
+     * longer recognized, so the retention must exceed the longest time a message can stay in flight.
+     *
+     * @return number of deleted records
+     */
+    public long purgeExpired() {
+        long maxAgeSeconds = inbox.getRetention().toSeconds();
+        int chunkSize = inbox.getChunkSize();
+        long total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(
+                    status -> inboxRepository.deleteReceivedBefore(maxAgeSeconds, chunkSize));
+            int count = deleted == null ? 0 : deleted;
+            total += count;
+            if (count < chunkSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("[Inbox] Purged {} records older than {}", total, inbox.getRetention());
+        }
+        return total;
+    }
+
+    private record Outcome(boolean handled, Throwable failure) {
+        static final Outcome HANDLED = new Outcome(true, null);
+        static final Outcome DUPLICATE = new Outcome(false, null);
+    }
+}
@@ -23,12 +23,10 @@
 package io.openleap.core.messaging.service;
 
 import io.openleap.core.messaging.config.MessagingProperties;
-import io.openleap.core.messaging.entity.OutboxEvent;
 import io.openleap.core.messaging.repository.OutboxRepository;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -48,24 +46,24 @@ public class MetricsService {
 
     private String dlqQueueName;
 
+    private int maxAttempts = 10;
+
     public MetricsService(MessagingProperties config, OutboxRepository outboxRepository, RabbitTemplate rabbitTemplate) {
         this.outboxRepository = outboxRepository;
         this.rabbitTemplate = rabbitTemplate;
         if (config != null) {
             this.mainQueueName = config.getMetrics().getQueues().getMain();
             this.dlqQueueName = config.getMetrics().getQueues().getDlq();
+            this.maxAttempts = config.getOutbox().getDispatcher().getMaxAttempts();
         }
     }
 
     public Map<String, Object> snapshot() {
         Map<String, Object> m = new HashMap<>();
         // Outbox metrics
-        List<OutboxEvent> pendingNow = outboxRepository.findPending();
-        List<OutboxEvent> allUnpublished = outboxRepository.findByPublishedFalse();
-        long parked = allUnpublished.stream().filter(o -> o.getNextAttemptAt() == null && o.getAttempts() > 0).count();
-        m.put("outbox_pending", pendingNow.size());
-        m.put("outbox_unpublished", allUnpublished.size());
-        m.put("outbox_parked", parked);
+        m.put("outbox_pending", outboxRepository.countPending(maxAttempts));
+        m.put("outbox_unpublished", outboxRepository.countByPublishedFalse());
+        m.put("outbox_parked", outboxRepository.countParked(maxAttempts));
 
         // Broker queue metrics (optional if queue names configured)
         if (mainQueueName != null && !mainQueueName.isBlank()) {
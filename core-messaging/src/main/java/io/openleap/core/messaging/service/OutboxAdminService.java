@@ -26,10 +26,9 @@ package io.openleap.core.messaging.service;
 import io.openleap.core.messaging.entity.OutboxEvent;
 import io.openleap.core.messaging.repository.OutboxRepository;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
-import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -49,28 +48,12 @@ public class OutboxAdminService {
 
     @Transactional(readOnly = true)
     public List<OutboxEvent> listFailed(int limit) {
-        List<OutboxEvent> all = outboxRepository.findByPublishedFalse();
-        return all.stream()
-                .filter(o -> o.getAttempts() >= maxAttempts && o.getNextAttemptAt() == null)
-                .sorted(Comparator.comparing(OutboxEvent::getCreatedAt))
-                .limit(limit > 0 ? limit : Long.MAX_VALUE)
-                .toList();
+        return outboxRepository.findParked(maxAttempts, limit > 0 ? Limit.of(limit) : Limit.unlimited());
     }
 
     @Transactional
     public int replayFailed(int limit) {
-        int count = 0;
-        List<OutboxEvent> all = outboxRepository.findByPublishedFalse();
-        for (OutboxEvent o : all) {
-            if (o.getAttempts() >= maxAttempts && o.getNextAttemptAt() == null) {
-                if (limit > 0 && count >= limit) break;
-                // Reset attempts and schedule immediate retry
-                o.setAttempts(0);
-                o.setNextAttemptAt(Instant.now());
-                o.setLastError(null);
-                count++;
-            }
-        }
-        return count;
+        // Reset attempts and schedule immediate retry in a single bulk update
+        return outboxRepository.replayParked(maxAttempts, limit > 0 ? limit : Integer.MAX_VALUE);
     }
 }
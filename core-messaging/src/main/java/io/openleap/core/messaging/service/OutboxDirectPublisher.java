@@ -0,0 +1,214 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.service;
+
+import io.openleap.core.messaging.dispatcher.DispatchResult;
+import io.openleap.core.messaging.dispatcher.OutboxCircuitBreaker;
+import io.openleap.core.messaging.dispatcher.OutboxDispatcher;
+import io.openleap.core.messaging.dispatcher.OutboxRateLimiter;
+import io.openleap.core.messaging.entity.OutboxEvent;
+import io.openleap.core.messaging.repository.OutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Fast path that publishes the records of a committed transaction straight away instead of waiting for a
+ * dispatcher pass to read them back.
+ * <p>
+ * The publisher writes its records with a lease: {@code nextAttemptAt} lies {@code lease-millis} in the future, so
+ * the regular sweep leaves them alone. After commit the records, still holding their serialized payload, are
+ * published on a virtual thread with publisher confirms. Acked records are marked published (or deleted with
+ * {@code delete-on-ack}) in one statement. Records that are nacked or unconfirmed are not touched; once the lease runs
+ * out they are picked up by {@link OutboxProcessor} like any other due record, which also charges their attempts.
+ * Records over their rate limit or held back by the circuit breaker are handed back to the sweep right away, due at
+ * their rate-limit slot. Delivery stays at-least-once: if the node dies between ack and update, the sweep publishes again.
+ */
+@Slf4j
+public class OutboxDirectPublisher {
+
+    private final OutboxDispatcher outboxDispatcher;
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxMetrics outboxMetrics;
+    private final OutboxCircuitBreaker circuitBreaker;
+    private final OutboxRateLimiter rateLimiter;
+    private final boolean deleteOnAck;
+    private final long leaseMillis;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public OutboxDirectPublisher(OutboxDispatcher outboxDispatcher,
+                                 OutboxRepository outboxRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 OutboxMetrics outboxMetrics,
+                                 OutboxCircuitBreaker circuitBreaker,
+                                 OutboxRateLimiter rateLimiter,
+                                 boolean deleteOnAck,
+                                 long leaseMillis) {
+        this.outboxDispatcher = outboxDispatcher;
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxMetrics = outboxMetrics;
+        this.circuitBreaker = circuitBreaker;
+        this.rateLimiter = rateLimiter;
+        this.deleteOnAck = deleteOnAck;
+        this.leaseMillis = leaseMillis;
+    }
+
+    /**
+     * Whether records written now should take the fast path. Unless the broker circuit is closed they go to the
+     * sweep right away instead of waiting out a lease; a half-open circuit is probed by the sweep alone.
+     */
+    public boolean isAvailable() {
+        return circuitBreaker == null || circuitBreaker.getState() == OutboxCircuitBreaker.State.CLOSED;
+    }
+
+    /**
+     * Leases the given records to the fast path. Called right before they are inserted.
+     */
+    public void lease(List<OutboxEvent> events) {
+        Instant until = Instant.now().plusMillis(leaseMillis);
+        events.forEach(e -> e.setNextAttemptAt(until));
+    }
+
+    /**
+     * Publishes leased records of a committed transaction in the background.
+     */
+    public void publishAfterCommit(List<OutboxEvent> events) {
+        try {
+            executor.execute(() -> publish(events));
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the sweep takes over once the lease expires
+            log.debug("[Outbox] Direct publish rejected, {} records left to the sweep", events.size());
+        }
+    }
+
+    void publish(List<OutboxEvent> events) {
+        Instant now = Instant.now();
+        List<OutboxEvent> window = new ArrayList<>(events.size());
+        List<OutboxEvent> released = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            long delayMs = rateLimiter == null ? 0 : rateLimiter.tryAcquire(event.getExchangeKey(), event.getRoutingKey());
+            if (delayMs == 0) {
+                window.add(event);
+                continue;
+            }
+            // The limiter has reserved a slot for this record, so the sweep takes it then rather than after the lease
+            event.setNextAttemptAt(now.plusMillis(delayMs));
+            released.add(event);
+            if (outboxMetrics != null) {
+                outboxMetrics.recordThrottled(event);
+            }
+        }
+        if (circuitBreaker != null) {
+            // Same gate as the sweep, in case the circuit opened since the records were leased
+            int permitted = circuitBreaker.permits(window.size());
+            for (OutboxEvent event : window.subList(permitted, window.size())) {
+                event.setNextAttemptAt(now);
+                released.add(event);
+            }
+            window = window.subList(0, permitted);
+        }
+        releaseLeases(released);
+        if (window.isEmpty()) {
+            return;
+        }
+        List<DispatchResult> results;
+        try {
+            results = outboxDispatcher.dispatchAll(window);
+        } catch (Exception e) {
+            log.warn("[Outbox] Direct publish of {} records failed, left to the sweep: {}", window.size(), e.getMessage());
+            return;
+        }
+        List<Long> acked = new ArrayList<>(window.size());
+        for (int i = 0; i < window.size(); i++) {
+            OutboxEvent event = window.get(i);
+            DispatchResult result = results.get(i);
+            if (circuitBreaker != null) {
+                if (result.brokerUnavailable()) {
+                    circuitBreaker.onBrokerUnavailable();
+                } else {
+                    circuitBreaker.onBrokerReachable();
+                }
+            }
+            if (outboxMetrics != null) {
+                outboxMetrics.recordDispatch(event, result.success());
+            }
+            if (result.success()) {
+                acked.add(event.getId());
+                if (outboxMetrics != null) {
+                    outboxMetrics.recordDeliveryLatency(event);
+                }
+            } else {
+                log.debug("[Outbox] Direct publish of id={} not confirmed, left to the sweep: {}", event.getId(), result.reason());
+            }
+        }
+        if (acked.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (deleteOnAck) {
+                    outboxRepository.deleteAllByIdInBatch(acked);
+                } else {
+                    outboxRepository.markPublished(acked);
+                }
+            });
+            log.debug("[Outbox] Directly published {} records", acked.size());
+        } catch (Exception e) {
+            // The events are out; the sweep will publish them once more after the lease
+            log.warn("[Outbox] Failed to mark {} directly published records: {}", acked.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Hands records that were not sent back to the sweep at their {@code nextAttemptAt} instead of after the lease.
+     */
+    private void releaseLeases(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<Instant, List<Long>> idsByTime = events.stream().collect(Collectors.groupingBy(OutboxEvent::getNextAttemptAt,
+                Collectors.mapping(OutboxEvent::getId, Collectors.toList())));
+        try {
+            transactionTemplate.executeWithoutResult(status -> idsByTime.forEach(
+                    (at, ids) -> outboxRepository.releaseLease(ids, at)));
+        } catch (Exception e) {
+            log.warn("[Outbox] Failed to release {} leased records, left to the sweep after the lease: {}",
+                    events.size(), e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.openleap.core.messaging.entity.OutboxEvent;
+import io.openleap.core.messaging.event.EventPriority;
+import io.openleap.core.messaging.repository.OutboxRepository;
+import io.openleap.core.messaging.repository.OutboxRouteCount;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer instrumentation of the outbox pipeline. Backlog and dispatch meters are tagged by exchange and routing key;
+ * the backlog is also exported per priority, and delivery latency carries the priority tag.
+ * <p>
+ * Backlog and parked gauges are refreshed by a background schedule, so scraping never hits the database.
+ */
+@Slf4j
+public class OutboxMetrics {
+
+    private static final String EXCHANGE_TAG = "exchange";
+
+    private static final String ROUTING_KEY_TAG = "routing_key";
+
+    private static final String OUTCOME_TAG = "outcome";
+
+    private static final String PRIORITY_TAG = "priority";
+
+    private final MeterRegistry meterRegistry;
+    private final OutboxRepository outboxRepository;
+    private final int maxAttempts;
+    private final MultiGauge backlog;
+    private final MultiGauge priorityBacklog;
+    private final MultiGauge parked;
+    private final Counter purged;
+
+    // Per-route meters are registered on first use and then only looked up, dispatch never goes through the registry
+    private final Map<MeterKey, Counter> dispatched = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Counter> throttled = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Timer> confirmLatency = new ConcurrentHashMap<>();
+    private final Map<MeterKey, Timer> deliveryLatency = new ConcurrentHashMap<>();
+
+    public OutboxMetrics(MeterRegistry meterRegistry, OutboxRepository outboxRepository, int maxAttempts) {
+        this.meterRegistry = meterRegistry;
+        this.outboxRepository = outboxRepository;
+        this.maxAttempts = maxAttempts;
+        this.backlog = MultiGauge.builder("outbox.backlog")
+                .description("Unpublished outbox records that are not parked")
+                .register(meterRegistry);
+        this.priorityBacklog = MultiGauge.builder("outbox.backlog.priority")
+                .description("Unpublished outbox records that are not parked, by priority")
+                .register(meterRegistry);
+        this.parked = MultiGauge.builder("outbox.parked")
+                .description("Outbox records parked after exhausting max attempts")
+                .register(meterRegistry);
+        this.purged = Counter.builder("outbox.purged")
+                .description("Published outbox records deleted by retention")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${ol.messaging.metrics.refresh-interval:15000}")
+    public void refreshGauges() {
+        try {
+            backlog.register(toRows(outboxRepository.countBacklogByRoute(maxAttempts)), true);
+            parked.register(toRows(outboxRepository.countParkedByRoute(maxAttempts)), true);
+            priorityBacklog.register(outboxRepository.countBacklogByPriority(maxAttempts).stream()
+                    .<MultiGauge.Row<?>>map(c -> MultiGauge.Row.of(Tags.of(PRIORITY_TAG, c.priority().value()), c.count()))
+                    .toList(), true);
+        } catch (Exception e) {
+            log.warn("[Outbox] Failed to refresh outbox gauges: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Counts one dispatch attempt; {@code outcome} is {@code ack} or {@code nack}.
+     */
+    public void recordDispatch(OutboxEvent event, boolean acked) {
+        dispatched.computeIfAbsent(MeterKey.of(event.getExchangeKey(), event.getRoutingKey(), acked ? "ack" : "nack"),
+                key -> Counter.builder("outbox.dispatched")
+                        .description("Outbox dispatch attempts by broker outcome")
+                        .tags(key.routeTags())
+                        .tag(OUTCOME_TAG, key.qualifier())
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Counts a record deferred because its route exceeded its rate limit.
+     */
+    public void recordThrottled(OutboxEvent event) {
+        throttled.computeIfAbsent(MeterKey.of(event.getExchangeKey(), event.getRoutingKey(), null),
+                key -> Counter.builder("outbox.throttled")
+                        .description("Outbox records deferred by rate limits")
+                        .tags(key.routeTags())
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Records the time between handing a message to the broker and receiving its publisher confirm.
+     */
+    public void recordConfirmLatency(String exchange, String routingKey, long nanos) {
+        confirmLatency.computeIfAbsent(MeterKey.of(exchange, routingKey, null),
+                key -> Timer.builder("outbox.confirm.latency")
+                        .description("Time from publish to publisher confirm")
+                        .tags(key.routeTags())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time between {@link OutboxEvent#getOccurredAt()}, or the later {@link OutboxEvent#getDeliverAt()}
+     * of a scheduled record, and the broker ack.
+     */
+    public void recordDeliveryLatency(OutboxEvent event) {
+        if (event.getOccurredAt() == null) {
+            return;
+        }
+        Instant due = event.getDeliverAt() != null && event.getDeliverAt().isAfter(event.getOccurredAt())
+                ? event.getDeliverAt()
+                : event.getOccurredAt();
+        Duration latency = Duration.between(due, Instant.now());
+        EventPriority priority = event.getPriority() == null ? EventPriority.NORMAL : event.getPriority();
+        deliveryLatency.computeIfAbsent(MeterKey.of(event.getExchangeKey(), event.getRoutingKey(), priority.value()),
+                key -> Timer.builder("outbox.delivery.latency")
+                        .description("Time from enqueue to broker ack")
+                        .tags(key.routeTags())
+                        .tag(PRIORITY_TAG, key.qualifier())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(latency.isNegative() ? Duration.ZERO : latency);
+    }
+
+    /**
+     * Exposes the delay the dispatcher currently waits between passes.
+     */
+    public void bindPollInterval(AtomicLong delayMillis) {
+        Gauge.builder("outbox.poll.interval", delayMillis, AtomicLong::get)
+                .description("Current delay between outbox dispatch passes")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts published records removed by the retention purge.
+     */
+    public void recordPurged(int count) {
+        purged.increment(count);
+    }
+
+    private static List<MultiGauge.Row<?>> toRows(List<OutboxRouteCount> counts) {
+        return counts.stream()
+                .<MultiGauge.Row<?>>map(c -> MultiGauge.Row.of(routeTags(c.exchangeKey(), c.routingKey()), c.count()))
+                .toList();
+    }
+
+    private static Tags routeTags(String exchange, String routingKey) {
+        return Tags.of(EXCHANGE_TAG, exchange == null ? "" : exchange,
+                ROUTING_KEY_TAG, routingKey == null ? "" : routingKey);
+    }
+
+    /**
+     * Route of a cached meter plus its outcome or priority tag, if it has one.
+     */
+    private record MeterKey(String exchange, String routingKey, String qualifier) {
+
+        static MeterKey of(String exchange, String routingKey, String qualifier) {
+            return new MeterKey(exchange == null ? "" : exchange, routingKey == null ? "" : routingKey, qualifier);
+        }
+
+        Tags routeTags() {
+            return OutboxMetrics.routeTags(exchange, routingKey);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.service;
+
+import io.openleap.core.messaging.repository.OutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+
+/**
+ * Cross-node wakeup for the outbox dispatcher based on Postgres {@code LISTEN/NOTIFY}.
+ * <p>
+ * Publishers call {@link #notifyOnCommit()} inside their transaction; Postgres delivers the notification
+ * to every listening session once the transaction commits. Each node keeps one connection in
+ * {@code LISTEN} mode and turns incoming notifications into {@link OutboxOrchestrator#wakeup()}.
+ * The polling tick stays in place as a safety net for notifications lost during reconnects.
+ */
+@Slf4j
+public class OutboxNotifier implements SmartLifecycle {
+
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final DataSource dataSource;
+    private final OutboxRepository outboxRepository;
+    private final OutboxOrchestrator outboxOrchestrator;
+    private final String channel;
+
+    private volatile boolean running = false;
+    private Thread listener;
+
+    public OutboxNotifier(DataSource dataSource,
+                          OutboxRepository outboxRepository,
+                          OutboxOrchestrator outboxOrchestrator,
+                          String channel) {
+        Assert.isTrue(channel != null && CHANNEL_PATTERN.matcher(channel).matches(),
+                "Notify channel must be a lower-case SQL identifier: " + channel);
+        this.dataSource = dataSource;
+        this.outboxRepository = outboxRepository;
+        this.outboxOrchestrator = outboxOrchestrator;
+        this.channel = channel;
+    }
+
+    /**
+     * Queues a notification in the current transaction. Duplicate notifications within one transaction
+     * are folded into one by Postgres.
+     */
+    public void notifyOnCommit() {
+        outboxRepository.notifyChannel(channel);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        listener = new Thread(this::listenLoop, "outbox-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try {
+                    listen(connection);
+                } finally {
+                    unlisten(connection);
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("[Outbox] Notification listener failed, reconnecting in {} ms: {}", RECONNECT_DELAY_MILLIS, e.toString());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + channel);
+        }
+        log.info("[Outbox] Listening for outbox notifications on channel={}", channel);
+        // Catch up on anything committed while we were not listening
+        outboxOrchestrator.wakeup();
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+            if (notifications != null && notifications.length > 0) {
+                outboxOrchestrator.wakeup();
+            }
+        }
+    }
+
+    /**
+     * The connection goes back to the pool, so its next borrower must not inherit the subscription.
+     */
+    private void unlisten(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UNLISTEN *");
+        } catch (SQLException e) {
+            log.debug("[Outbox] Failed to unlisten before releasing the connection: {}", e.getMessage());
+        }
+    }
+}
@@ -22,47 +22,106 @@
  */
 package io.openleap.core.messaging.service;
 
+import io.openleap.core.lock.LeaderLease;
 import io.openleap.core.lock.aspect.DistributedLock;
+import io.openleap.core.messaging.config.MessagingProperties;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 
-import java.util.concurrent.Semaphore;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Background dispatcher that publishes outbox records to RabbitMQ with retry/backoff.
  * Implements a simple producer-side DLQ by parking records after max attempts.
  * Uses publisher confirms to mark records as SENT only after broker ack.
+ * <p>
+ * In {@code single} mode only the node holding the dispatcher {@link LeaderLease} drains the outbox. The lease is
+ * checked locally on every pass and only goes to the database once per check interval. In {@code parallel} mode every node runs a pool of workers that claim bounded
+ * batches with {@code FOR UPDATE SKIP LOCKED}, so throughput scales with nodes and cores.
+ * In {@code ordered} mode the workers split the lanes among themselves and publish each lane in order.
+ * <p>
+ * Passes are scheduled adaptively: the next pass follows immediately while passes keep finding full
+ * batches, after {@code fixed-delay} when they find some work, and with an exponentially growing delay
+ * up to {@code max-delay} while the outbox stays empty. A {@link #wakeup()} always runs the next pass
+ * right away and resets the delay. The delay never runs past the earliest record scheduled with {@code deliverAt} or
+ * deferred by a rate limit, so those are dispatched on time rather than on the next poll.
  */
 @Slf4j
 public class OutboxOrchestrator {
 
     private final OutboxProcessor outboxProcessor;
 
+    private final LeaderLease leaderLease;
+
     @Value("${ol.messaging.outbox.dispatcher.enabled:true}")
     private boolean enabled;
 
     @Value("${ol.messaging.outbox.dispatcher.fixed-delay:1000}")
     private long fixedDelayMs;
 
+    @Value("${ol.messaging.outbox.dispatcher.max-delay:10000}")
+    private long maxDelayMs = 10000;
+
+    @Value("${ol.messaging.outbox.dispatcher.mode:single}")
+    private MessagingProperties.DispatchMode mode = MessagingProperties.DispatchMode.single;
+
+    @Value("${ol.messaging.outbox.dispatcher.workers:4}")
+    private int workers = 4;
+
+    @Value("${ol.messaging.outbox.dispatcher.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${ol.messaging.outbox.dispatcher.lanes:16}")
+    private int lanes = 16;
+
+    // How long context shutdown waits for a pass in flight before interrupting it
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
     // Serialize dispatcher execution within this JVM to avoid double sending
     private final ReentrantLock dispatchLock = new ReentrantLock();
 
-    // Signal for immediate wakeups
-    private final Semaphore wakeupSignal = new Semaphore(0);
-    private final AtomicBoolean running = new AtomicBoolean(false);
-    private Thread worker;
+    // Delay before the next pass as chosen by the last one; exported as a gauge
+    final AtomicLong currentDelayMs = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> nextPass;
+    private ExecutorService workerPool;
+    private boolean stopped;
 
-    public OutboxOrchestrator(OutboxProcessor outboxProcessor) {
+    // Set by a single-mode pass that found another node leading; such a node does not plan deliveries
+    private volatile boolean follower;
+
+    public OutboxOrchestrator(OutboxProcessor outboxProcessor, OutboxMetrics outboxMetrics, LeaderLease leaderLease) {
         this.outboxProcessor = outboxProcessor;
+        this.leaderLease = leaderLease;
+        if (outboxMetrics != null) {
+            outboxMetrics.bindPollInterval(currentDelayMs);
+        }
+    }
+
+    /**
+     * @deprecated the auto-configuration wires this bean; construct it with all collaborators instead
+     */
+    @Deprecated
+    public OutboxOrchestrator(OutboxProcessor outboxProcessor) {
+        this(outboxProcessor, null, null);
     }
 
     /**
-     * Backup scheduled tick: if fixedDelay is set to 0, the scheduled wakeup is effectively disabled.
-     * Otherwise, it only signals the worker to perform a dispatch pass.
+     * Bootstraps the adaptive pass loop. Once running, the loop schedules itself, so later ticks are no-ops.
      */
     @Scheduled(fixedDelayString = "${ol.messaging.outbox.dispatcher.fixed-delay:1000}")
     public void scheduledTick() {
@@ -71,7 +130,7 @@ public class OutboxOrchestrator {
             // Disabled by configuration
             return;
         }
-        wakeup();
+        ensureSchedulerStarted();
     }
 
     /**
@@ -79,60 +138,285 @@ public class OutboxOrchestrator {
      */
     public void wakeup() {
         if (!enabled) return;
-        if (wakeupSignal.availablePermits() == 0) {
-            wakeupSignal.release();
+        currentDelayMs.set(0);
+        ensureSchedulerStarted();
+        schedulePass(0);
+    }
+
+    private synchronized void ensureSchedulerStarted() {
+        if (scheduler != null || stopped) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("outbox-dispatcher").daemon(true).factory());
+        schedulePass(0);
+    }
+
+    /**
+     * Schedules the next pass unless one is already due earlier.
+     */
+    private synchronized void schedulePass(long delayMs) {
+        if (stopped) {
+            return;
+        }
+        if (nextPass != null && !nextPass.isDone() && nextPass.getDelay(TimeUnit.MILLISECONDS) <= delayMs) {
+            return;
+        }
+        if (nextPass != null) {
+            nextPass.cancel(false);
         }
-        ensureWorkerStarted();
+        nextPass = scheduler.schedule(this::runScheduledPass, delayMs, TimeUnit.MILLISECONDS);
     }
 
-    private synchronized void ensureWorkerStarted() {
-        if (running.get()) return;
-        running.set(true);
-        worker = new Thread(this::runLoop, "outbox-dispatcher");
-        worker.setDaemon(true);
-        worker.start();
+    private void runScheduledPass() {
+        synchronized (this) {
+            // This pass is running; wakeups from now on must schedule a new one
+            nextPass = null;
+        }
+        int processed = 0;
+        try {
+            processed = runPass();
+        } catch (Throwable t) {
+            log.error("[Outbox] Worker loop error: {}", t.toString());
+        }
+        long delay = nextDelay(processed, earliestDue(processed));
+        if (delay >= 0) {
+            currentDelayMs.set(delay);
+            schedulePass(delay);
+        }
     }
 
-    // TODO (itaseski): Maybe use scheduled executor with fixed delay instead of running a loop?
-    private void runLoop() {
-        while (running.get()) {
-            try {
-                if (fixedDelayMs > 0) {
-                    wakeupSignal.tryAcquire(fixedDelayMs, TimeUnit.MILLISECONDS);
-                } else {
-                    // No periodic wakeups; only react to signals
-                    wakeupSignal.acquire();
-                }
-                // Execute dispatch pass
-                execute();
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-                break;
-            } catch (Throwable t) {
-                log.error("[Outbox] Worker loop error: {}", t.toString());
-            }
+    /**
+     * @return delay before the next pass, or {@code -1} to wait for the next wakeup
+     */
+    long nextDelay(int processed) {
+        return nextDelay(processed, -1);
+    }
+
+    /**
+     * Like {@link #nextDelay(int)}, but never waits past the moment the earliest rate-limited or scheduled record
+     * becomes due.
+     */
+    long nextDelay(int processed, long deferralMs) {
+        long delay = adaptiveDelay(processed);
+        if (deferralMs > 0 && (delay < 0 || deferralMs < delay)) {
+            return deferralMs;
+        }
+        return delay;
+    }
+
+    /**
+     * Delay until the earlier of the next rate-limited or scheduled record, {@code -1} if there is none.
+     * Scheduled records are only looked up after a partial pass, a full one runs again right away anyway.
+     */
+    private long earliestDue(int processed) {
+        long deferral = outboxProcessor.takeEarliestDeferral();
+        if (processed >= batchSize || follower) {
+            return deferral;
+        }
+        long delivery;
+        try {
+            delivery = outboxProcessor.millisUntilNextDelivery();
+        } catch (Exception e) {
+            log.debug("[Outbox] Failed to look up the next scheduled delivery: {}", e.toString());
+            return deferral;
+        }
+        if (deferral <= 0) {
+            return delivery;
+        }
+        return delivery <= 0 ? deferral : Math.min(deferral, delivery);
+    }
+
+    /**
+     * Requests a dispatch pass no later than {@code deliverAt}, for records scheduled from this node.
+     */
+    public void wakeupAt(Instant deliverAt) {
+        if (!enabled) return;
+        ensureSchedulerStarted();
+        schedulePass(Math.max(0, Duration.between(Instant.now(), deliverAt).toMillis()));
+    }
+
+    private long adaptiveDelay(int processed) {
+        if (processed >= batchSize) {
+            return 0;
+        }
+        if (fixedDelayMs == 0) {
+            // No periodic passes; only react to wakeups
+            return -1;
         }
+        if (processed > 0) {
+            return fixedDelayMs;
+        }
+        long previous = currentDelayMs.get();
+        long doubled = previous < fixedDelayMs ? fixedDelayMs : previous * 2;
+        return Math.min(Math.max(maxDelayMs, fixedDelayMs), doubled);
+    }
+
+    private int runPass() {
+        return switch (mode) {
+            case parallel -> executeParallel();
+            case ordered -> executeOrdered();
+            default -> dispatchSingle();
+        };
     }
 
     // TODO (itaseski): Consider adding backoff to the distributed lock acquisition?
     @DistributedLock(key = "outbox-dispatcher")
     public void execute() {
+        dispatchSingle();
+    }
+
+    private int dispatchSingle() {
         if (!enabled) {
             log.debug("[Outbox] Dispatcher disabled via property");
-            return;
+            return 0;
         }
 
         // Layer 1: In-process guard (ReentrantLock) to prevent local thread contention
         // and avoid unnecessary database/network round-trips for the distributed lock.
         if (!dispatchLock.tryLock()) {
             log.debug("[Outbox] Dispatch already running, skipping concurrent invocation");
-            return;
+            return 0;
         }
         try {
-            outboxProcessor.processOutbox();
+            // Layer 2: cluster-wide leadership, answered locally between lease checks
+            follower = leaderLease != null && !leaderLease.isLeader();
+            if (follower) {
+                log.debug("[Outbox] Not the dispatcher leader, skipping pass");
+                return 0;
+            }
+            return outboxProcessor.processOutbox();
         } finally {
             // TODO (itaseski): Check if transaction synchronization is needed for unlocking
             dispatchLock.unlock();
         }
     }
+
+    /**
+     * Runs one dispatch pass on the worker pool without the cluster-wide lock. Each worker keeps
+     * claiming batches until it gets a partial one; row locks keep workers on all nodes disjoint.
+     *
+     * @return number of records claimed by all workers
+     */
+    public int executeParallel() {
+        return runOnWorkers(worker -> drainClaimedBatches());
+    }
+
+    /**
+     * Runs one ordered dispatch pass. Worker {@code w} owns lanes {@code w, w + workers, ...} and visits
+     * them round-robin, taking at most one batch per lane and round so a busy lane cannot starve the
+     * others. Lane advisory locks keep workers of different nodes off the same lane.
+     *
+     * @return number of records published by all workers
+     */
+    public int executeOrdered() {
+        return runOnWorkers(this::drainLanes);
+    }
+
+    private int runOnWorkers(IntUnaryOperator task) {
+        if (!enabled) {
+            log.debug("[Outbox] Dispatcher disabled via property");
+            return 0;
+        }
+
+        if (!dispatchLock.tryLock()) {
+            log.debug("[Outbox] Dispatch already running, skipping concurrent invocation");
+            return 0;
+        }
+        List<Future<Integer>> futures = new ArrayList<>(workers);
+        int processed = 0;
+        try {
+            ExecutorService pool = workerPool();
+            if (pool == null) {
+                // Shutting down
+                return 0;
+            }
+            for (int i = 0; i < workers; i++) {
+                int worker = i;
+                futures.add(pool.submit(() -> task.applyAsInt(worker)));
+            }
+            for (Future<Integer> future : futures) {
+                try {
+                    processed += future.get();
+                } catch (ExecutionException ee) {
+                    log.error("[Outbox] Worker failed: {}", ee.getCause().toString());
+                }
+            }
+        } catch (InterruptedException ie) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+        } finally {
+            dispatchLock.unlock();
+        }
+        return processed;
+    }
+
+    private int drainClaimedBatches() {
+        int total = 0;
+        int claimed;
+        do {
+            claimed = outboxProcessor.processClaimedBatch();
+            total += claimed;
+        } while (claimed >= batchSize && !Thread.currentThread().isInterrupted());
+        return total;
+    }
+
+    private int drainLanes(int worker) {
+        int total = 0;
+        boolean more;
+        do {
+            more = false;
+            for (int lane = worker; lane < lanes; lane += workers) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return total;
+                }
+                int published = outboxProcessor.processLane(lane);
+                total += published;
+                more |= published >= batchSize;
+            }
+        } while (more);
+        return total;
+    }
+
+    /**
+     * Stops scheduling passes and waits for a pass in flight to finish, so it is not cut off mid-transaction.
+     */
+    public void shutdown() {
+        ScheduledExecutorService passScheduler;
+        ExecutorService pool;
+        synchronized (this) {
+            stopped = true;
+            if (nextPass != null) {
+                nextPass.cancel(false);
+                nextPass = null;
+            }
+            passScheduler = scheduler;
+            pool = workerPool;
+        }
+        // The pass runs on the scheduler and waits for the workers, so the workers are awaited last
+        awaitTermination(passScheduler);
+        awaitTermination(pool);
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("[Outbox] Dispatch pass still running after {}, interrupting it", SHUTDOWN_TIMEOUT);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized ExecutorService workerPool() {
+        if (workerPool == null && !stopped) {
+            workerPool = Executors.newFixedThreadPool(workers,
+                    Thread.ofPlatform().name("outbox-worker-", 0).daemon(true).factory());
+        }
+        return workerPool;
+    }
 }
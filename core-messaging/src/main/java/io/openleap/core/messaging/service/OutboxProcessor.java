@@ -2,75 +2,431 @@ package io.openleap.core.messaging.service;
 
 
 import io.openleap.core.messaging.dispatcher.DispatchResult;
+import io.openleap.core.messaging.dispatcher.OutboxCircuitBreaker;
 import io.openleap.core.messaging.dispatcher.OutboxDispatcher;
+import io.openleap.core.messaging.dispatcher.OutboxPriorityWeights;
+import io.openleap.core.messaging.dispatcher.OutboxRateLimiter;
 import io.openleap.core.messaging.entity.OutboxEvent;
+import io.openleap.core.messaging.event.EventPriority;
 import io.openleap.core.messaging.repository.OutboxRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @Slf4j
 public class OutboxProcessor {
 
+    // Namespace of the two-key advisory locks that guard lanes; disjoint from single-key locks of core-lock
+    static final int LANE_LOCK_NAMESPACE = "outbox-lane".hashCode();
+
     private final OutboxRepository outboxRepository;
 
     private final OutboxDispatcher outboxDispatcher;
 
+    private final TransactionTemplate transactionTemplate;
+
+    private final OutboxMetrics outboxMetrics;
+
+    private final OutboxCircuitBreaker circuitBreaker;
+
+    private final OutboxRateLimiter rateLimiter;
+
+    private final OutboxPriorityWeights priorityWeights;
+
     @Value("${ol.messaging.outbox.dispatcher.max-attempts:10}")
     private int maxAttempts;
 
     @Value("${ol.messaging.outbox.dispatcher.delete-on-ack:false}")
     private boolean deleteOnAck;
 
-    public OutboxProcessor(OutboxRepository outboxRepository, OutboxDispatcher outboxDispatcher) {
+    @Value("${ol.messaging.outbox.dispatcher.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${ol.messaging.outbox.dispatcher.page-size:500}")
+    private int pageSize = 500;
+
+    @Value("${ol.messaging.outbox.dispatcher.lanes:16}")
+    private int lanes = 16;
+
+    public OutboxProcessor(OutboxRepository outboxRepository,
+                           OutboxDispatcher outboxDispatcher,
+                           TransactionTemplate transactionTemplate,
+                           OutboxMetrics outboxMetrics,
+                           OutboxCircuitBreaker circuitBreaker,
+                           OutboxRateLimiter rateLimiter,
+                           OutboxPriorityWeights priorityWeights) {
         this.outboxRepository = outboxRepository;
         this.outboxDispatcher = outboxDispatcher;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxMetrics = outboxMetrics;
+        this.circuitBreaker = circuitBreaker;
+        this.rateLimiter = rateLimiter;
+        this.priorityWeights = priorityWeights;
     }
 
-    @Transactional
-    public void processOutbox() {
-        // TODO (itaseski): Explore using a thread pool to process messages in parallel,
-        // with a limit, and leverage FOR UPDATE SKIP LOCKED to ensure transactional uniqueness.
-        List<OutboxEvent> pending = outboxRepository.findPending();
-        log.debug("[Outbox] Found pending size={}", pending.size());
-        for (OutboxEvent ob : pending) {
-            // If max attempts exceeded previously and nextAttemptAt is null, consider it parked (DLQ state)
-            if (ob.getAttempts() >= maxAttempts && ob.getNextAttemptAt() == null) {
-                // parked - skip
-                continue;
+    /**
+     * @deprecated the auto-configuration wires this bean; construct it with all collaborators instead
+     */
+    @Deprecated
+    public OutboxProcessor(OutboxRepository outboxRepository, OutboxDispatcher outboxDispatcher) {
+        this(outboxRepository, outboxDispatcher, null, null, null, null, null);
+    }
+
+    /**
+     * Walks the backlog in keyset pages ordered by {@code (createdAt, id)}. Every page runs in its own
+     * short transaction, so heap usage and persistence-context size stay flat however large the backlog is.
+     * With priority weights, every priority is walked on its own and the pages alternate between them by weight.
+     *
+     * @return number of records dispatched by this pass
+     */
+    public int processOutbox() {
+        if (priorityWeights != null) {
+            return processOutboxByPriority();
+        }
+        Instant afterCreatedAt = null;
+        Long afterId = null;
+        int processed = 0;
+        while (!brokerCircuitOpen()) {
+            PageResult page = processPage(afterCreatedAt, afterId);
+            processed += page.dispatched();
+            if (page.size() < pageSize) {
+                break;
             }
-            try {
-                String rk = ob.getRoutingKey();
-
-                // TODO (itaseski): Consider batching for better performance
-                DispatchResult result = outboxDispatcher.dispatch(ob);
-
-                if (result.success()) {
-                    if (deleteOnAck) {
-                        outboxRepository.delete(ob);
-                        log.info("[Outbox] Published and deleted (ack) routingKey={} id={}", rk, ob.getId());
-                    } else {
-                        ob.setPublished(true);
-                        ob.setNextAttemptAt(null);
-                        ob.setLastError(null);
-                        outboxRepository.save(ob);
-                        log.info("[Outbox] Published (ack) routingKey={} id={}", rk, ob.getId());
+            afterCreatedAt = page.last().getCreatedAt();
+            afterId = page.last().getId();
+        }
+        return processed;
+    }
+
+    /**
+     * Weighted rounds over the priorities: each round shares {@code page-size} between all priorities, every
+     * priority continuing behind its own cursor. A priority that has caught up is still asked again next round, so
+     * a high-priority record enqueued during a long pass does not wait for the lower backlog to drain. The pass
+     * ends with the first round in which no priority filled its share.
+     */
+    private int processOutboxByPriority() {
+        List<EventPriority> priorities = priorityWeights.priorities();
+        Map<EventPriority, Integer> shares = priorityWeights.shares(priorities, pageSize);
+        Map<EventPriority, OutboxEvent> cursors = new EnumMap<>(EventPriority.class);
+        int processed = 0;
+        boolean more = true;
+        while (more && !brokerCircuitOpen()) {
+            more = false;
+            for (EventPriority priority : priorities) {
+                int share = shares.getOrDefault(priority, 0);
+                if (share == 0) {
+                    continue;
+                }
+                OutboxEvent after = cursors.get(priority);
+                PageResult page = processPage(() -> after == null
+                        ? outboxRepository.findPendingPageByPriority(maxAttempts, priority, Limit.of(share))
+                        : outboxRepository.findPendingPageByPriorityAfter(maxAttempts, priority,
+                        after.getCreatedAt(), after.getId(), Limit.of(share)));
+                processed += page.dispatched();
+                if (page.last() != null) {
+                    cursors.put(priority, page.last());
+                }
+                more |= page.size() >= share;
+                if (brokerCircuitOpen()) {
+                    break;
+                }
+            }
+        }
+        return processed;
+    }
+
+    private PageResult processPage(Instant afterCreatedAt, Long afterId) {
+        return processPage(() -> afterId == null
+                ? outboxRepository.findPendingPage(maxAttempts, Limit.of(pageSize))
+                : outboxRepository.findPendingPageAfter(maxAttempts, afterCreatedAt, afterId, Limit.of(pageSize)));
+    }
+
+    private PageResult processPage(Supplier<List<OutboxEvent>> query) {
+        return inTransaction(() -> {
+            List<OutboxEvent> page = query.get();
+            log.debug("[Outbox] Found pending page size={}", page.size());
+            List<OutboxEvent> window = new ArrayList<>(Math.min(page.size(), batchSize));
+            int dispatched = 0;
+            for (OutboxEvent ob : page) {
+                // If max attempts exceeded previously and nextAttemptAt is null, consider it parked (DLQ state)
+                if (ob.getAttempts() >= maxAttempts && ob.getNextAttemptAt() == null) {
+                    // parked - skip
+                    continue;
+                }
+                window.add(ob);
+                if (window.size() >= batchSize) {
+                    dispatched += dispatchWindow(window);
+                    window.clear();
+                    if (brokerCircuitOpen()) {
+                        break;
                     }
+                }
+            }
+            dispatched += dispatchWindow(window);
+            return new PageResult(page.size(), page.isEmpty() ? null : page.getLast(), dispatched);
+        });
+    }
+
+    /**
+     * Claims up to {@code batch-size} due records with {@code FOR UPDATE SKIP LOCKED} and dispatches them.
+     * The row locks are held until this transaction completes, so concurrent workers on this or any
+     * other node never claim the same record.
+     *
+     * @return number of claimed records that were dispatched by this call
+     */
+    @Transactional
+    public int processClaimedBatch() {
+        if (brokerCircuitOpen()) {
+            return 0;
+        }
+        List<OutboxEvent> claimed = priorityWeights == null
+                ? outboxRepository.claimPending(maxAttempts, batchSize)
+                : claimByPriority();
+        log.debug("[Outbox] Claimed batch size={}", claimed.size());
+        return dispatchWindow(claimed);
+    }
+
+    /**
+     * Fills one batch in weighted rounds over the priorities, highest first within the batch.
+     */
+    private List<OutboxEvent> claimByPriority() {
+        List<EventPriority> active = new ArrayList<>(priorityWeights.priorities());
+        Map<EventPriority, OutboxEvent> cursors = new EnumMap<>(EventPriority.class);
+        List<OutboxEvent> claimed = new ArrayList<>(batchSize);
+        while (!active.isEmpty() && claimed.size() < batchSize) {
+            Map<EventPriority, Integer> shares = priorityWeights.shares(active, batchSize - claimed.size());
+            for (EventPriority priority : List.copyOf(active)) {
+                int share = shares.getOrDefault(priority, 0);
+                if (share == 0) {
+                    continue;
+                }
+                OutboxEvent after = cursors.get(priority);
+                List<OutboxEvent> rows = outboxRepository.claimPendingByPriority(maxAttempts, priority.value(),
+                        after == null ? Instant.EPOCH : after.getCreatedAt(), after == null ? 0 : after.getId(), share);
+                claimed.addAll(rows);
+                if (rows.size() < share) {
+                    active.remove(priority);
                 } else {
-                    String cause = result.reason();
-                    handlePublishFailure(ob, cause);
+                    cursors.put(priority, rows.getLast());
                 }
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * Dispatches the head of one lane strictly in order, one confirm at a time. The lane is skipped if
+     * another dispatcher holds it. A head record that fails or is still backing off stops the lane, so
+     * later events of the same ordering key never overtake it; other lanes are not affected.
+     * Parked records no longer hold their lane. Records left from a larger {@code lanes} setting are folded in.
+     *
+     * @return number of records published from this lane
+     */
+    @Transactional
+    public int processLane(int lane) {
+        if (!outboxRepository.tryLockLane(LANE_LOCK_NAMESPACE, lane)) {
+            return 0;
+        }
+        List<OutboxEvent> head = outboxRepository.findLaneHead(lane, lanes, maxAttempts, Limit.of(batchSize));
+        Instant now = Instant.now();
+        int published = 0;
+        for (OutboxEvent ob : head) {
+            if (ob.getNextAttemptAt() != null && ob.getNextAttemptAt().isAfter(now)) {
+                log.debug("[Outbox] Lane {} blocked by backing-off record id={}", lane, ob.getId());
+                break;
+            }
+            if (deferIfThrottled(ob)) {
+                log.debug("[Outbox] Lane {} throttled at record id={}", lane, ob.getId());
+                break;
+            }
+            if (circuitBreaker != null && circuitBreaker.permits(1) == 0) {
+                break;
+            }
+            DispatchResult result;
+            try {
+                result = outboxDispatcher.dispatch(ob);
             } catch (Exception ex) {
-                handlePublishFailure(ob, ex.getMessage());
+                result = DispatchResult.fail(ex.getMessage());
+            }
+            settle(ob, result);
+            if (!result.success()) {
+                break;
+            }
+            published++;
+        }
+        return published;
+    }
+
+    /**
+     * Publishes a window of records in one go and then settles each record by its own confirm.
+     * While the broker circuit is open nothing is sent; when half-open only the first record is sent as probe.
+     * Records over their route's rate limit are deferred first and do not take part in the window.
+     *
+     * @return number of records actually dispatched
+     */
+    private int dispatchWindow(List<OutboxEvent> window) {
+        if (window.isEmpty()) {
+            return 0;
+        }
+        if (brokerCircuitOpen()) {
+            log.debug("[Outbox] Broker circuit open, skipping {} records", window.size());
+            return 0;
+        }
+        List<OutboxEvent> admitted = rateLimiter == null
+                ? window
+                : window.stream().filter(ob -> !deferIfThrottled(ob)).toList();
+        List<OutboxEvent> permitted = circuitBreaker == null
+                ? admitted
+                : admitted.subList(0, circuitBreaker.permits(admitted.size()));
+        if (permitted.isEmpty()) {
+            return 0;
+        }
+        List<DispatchResult> results;
+        try {
+            results = outboxDispatcher.dispatchAll(permitted);
+        } catch (Exception ex) {
+            // One failed publish call is one broker failure, however many records the window held
+            DispatchResult unavailable = DispatchResult.unavailable(ex.getMessage());
+            recordBrokerOutcome(unavailable);
+            permitted.forEach(ob -> applyResult(ob, unavailable));
+            return permitted.size();
+        }
+        for (int i = 0; i < permitted.size(); i++) {
+            settle(permitted.get(i), results.get(i));
+        }
+        return permitted.size();
+    }
+
+    /**
+     * Applies a dispatch result to its record after feeding it to the circuit breaker.
+     */
+    private void settle(OutboxEvent ob, DispatchResult result) {
+        recordBrokerOutcome(result);
+        applyResult(ob, result);
+    }
+
+    private void recordBrokerOutcome(DispatchResult result) {
+        if (circuitBreaker == null) {
+            return;
+        }
+        if (result.brokerUnavailable()) {
+            circuitBreaker.onBrokerUnavailable();
+        } else {
+            circuitBreaker.onBrokerReachable();
+        }
+    }
+
+    /**
+     * Connection-level failures are not the event's fault while the circuit is open: such records are left
+     * untouched instead of being charged an attempt. As long as the circuit stays closed, the broker is
+     * reachable for other records, so a missing confirm is charged and backed off like any other failure.
+     */
+    private void applyResult(OutboxEvent ob, DispatchResult result) {
+        if (result.success()) {
+            handlePublishSuccess(ob);
+        } else if (result.brokerUnavailable() && brokerCircuitTripped()) {
+            if (outboxMetrics != null) {
+                outboxMetrics.recordDispatch(ob, false);
             }
+            log.debug("[Outbox] Broker unavailable, record id={} keeps its attempts: {}", ob.getId(), result.reason());
+        } else {
+            handlePublishFailure(ob, result.reason());
+        }
+    }
+
+    /**
+     * Moves a record over its route's rate limit to the time its token will be available. The record keeps its
+     * attempts and last error, a deferral is not a failure.
+     *
+     * @return {@code true} if the record was deferred
+     */
+    private boolean deferIfThrottled(OutboxEvent ob) {
+        if (rateLimiter == null) {
+            return false;
+        }
+        long delayMs = rateLimiter.tryAcquire(ob.getExchangeKey(), ob.getRoutingKey());
+        if (delayMs == 0) {
+            return false;
+        }
+        ob.setNextAttemptAt(Instant.now().plusMillis(delayMs));
+        outboxRepository.save(ob);
+        if (outboxMetrics != null) {
+            outboxMetrics.recordThrottled(ob);
+        }
+        log.debug("[Outbox] Throttled routingKey={} id={} for {}ms", ob.getRoutingKey(), ob.getId(), delayMs);
+        return true;
+    }
+
+    /**
+     * @return delay in milliseconds until the earliest record deferred by the rate limits since the last call
+     * becomes due, or {@code -1} if none was deferred
+     */
+    public long takeEarliestDeferral() {
+        return rateLimiter == null ? -1 : rateLimiter.takeEarliestDeferral();
+    }
+
+    /**
+     * @return delay in milliseconds until the earliest record scheduled with {@code deliverAt} becomes due,
+     * or {@code -1} if none is scheduled
+     */
+    public long millisUntilNextDelivery() {
+        Instant next = outboxRepository.findNextDeliverAt();
+        if (next == null) {
+            return -1;
+        }
+        return Math.max(1, Duration.between(Instant.now(), next).toMillis());
+    }
+
+    private boolean brokerCircuitOpen() {
+        return circuitBreaker != null && circuitBreaker.isRejecting();
+    }
+
+    private boolean brokerCircuitTripped() {
+        return circuitBreaker != null && circuitBreaker.getState() != OutboxCircuitBreaker.State.CLOSED;
+    }
+
+    private record PageResult(int size, OutboxEvent last, int dispatched) {
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        if (transactionTemplate == null) {
+            return work.get();
+        }
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    private void handlePublishSuccess(OutboxEvent ob) {
+        String rk = ob.getRoutingKey();
+        if (outboxMetrics != null) {
+            outboxMetrics.recordDispatch(ob, true);
+            outboxMetrics.recordDeliveryLatency(ob);
+        }
+        if (deleteOnAck) {
+            outboxRepository.delete(ob);
+            log.info("[Outbox] Published and deleted (ack) routingKey={} id={}", rk, ob.getId());
+        } else {
+            ob.setPublished(true);
+            ob.setNextAttemptAt(null);
+            ob.setLastError(null);
+            outboxRepository.save(ob);
+            log.info("[Outbox] Published (ack) routingKey={} id={}", rk, ob.getId());
         }
     }
 
     private void handlePublishFailure(OutboxEvent ob, String error) {
+        if (outboxMetrics != null) {
+            outboxMetrics.recordDispatch(ob, false);
+        }
         int attempts = ob.getAttempts() + 1;
         ob.setAttempts(attempts);
         String safeError = (error == null || error.isBlank()) ? "PUBLISH_FAILED" : error;
@@ -0,0 +1,105 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.service;
+
+import io.openleap.core.messaging.config.MessagingProperties;
+import io.openleap.core.messaging.repository.OutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the outbox table small by deleting published records once they are older than {@code max-age}.
+ * <p>
+ * Rows are removed in chunks of {@code chunk-size}, each in its own short transaction, with a pause between
+ * chunks, so a large purge never holds long locks and autovacuum sees a steady trickle of dead tuples
+ * instead of one big spike.
+ */
+@Slf4j
+public class OutboxRetentionService {
+
+    private final OutboxRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MessagingProperties.Outbox.Retention retention;
+    private final OutboxMetrics outboxMetrics;
+
+    public OutboxRetentionService(OutboxRepository outboxRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  MessagingProperties.Outbox.Retention retention,
+                                  OutboxMetrics outboxMetrics) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.retention = retention;
+        this.outboxMetrics = outboxMetrics;
+    }
+
+    @Scheduled(fixedDelayString = "${ol.messaging.outbox.retention.interval:3600000}")
+    public void scheduledPurge() {
+        if (!retention.isEnabled()) return;
+        try {
+            purgePublished();
+        } catch (Exception e) {
+            log.error("[Outbox] Retention purge failed: {}", e.toString());
+        }
+    }
+
+    /**
+     * Deletes all published records older than {@code max-age}, chunk by chunk.
+     *
+     * @return number of deleted records
+     */
+    public long purgePublished() {
+        long maxAgeSeconds = retention.getMaxAge().toSeconds();
+        int chunkSize = retention.getChunkSize();
+        long total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(
+                    status -> outboxRepository.deletePublishedBefore(maxAgeSeconds, chunkSize));
+            int count = deleted == null ? 0 : deleted;
+            total += count;
+            if (outboxMetrics != null && count > 0) {
+                outboxMetrics.recordPurged(count);
+            }
+            if (count < chunkSize || !pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("[Outbox] Purged {} published records older than {}", total, retention.getMaxAge());
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        if (retention.getPauseMillis() <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(retention.getPauseMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- Due records: keyset pages, SKIP LOCKED claims and backlog counts
+CREATE INDEX idx_outbox_pending ON outbox (created_at, id) WHERE published = FALSE;
+
+-- Parked records (producer DLQ): admin listing, replay and parked counts
+CREATE INDEX idx_outbox_parked ON outbox (attempts, created_at, id) WHERE published = FALSE AND next_attempt_at IS NULL;
+
+-- Published records: age-based cleanup
+CREATE INDEX idx_outbox_published ON outbox (updated_at) WHERE published = TRUE;
@@ -0,0 +1,6 @@
+-- Ordered dispatch: events sharing an ordering key land in the same lane and are published in order
+ALTER TABLE outbox ADD COLUMN ordering_key VARCHAR(256);
+ALTER TABLE outbox ADD COLUMN lane INTEGER NOT NULL DEFAULT 0;
+
+-- Head of each lane in dispatch order
+CREATE INDEX idx_outbox_lane ON outbox (lane, created_at, id) WHERE published = FALSE;
@@ -0,0 +1,11 @@
+-- Consumer-side deduplication: one row per (consumer queue, eventId) handled successfully
+CREATE TABLE inbox (
+    consumer VARCHAR(256) NOT NULL,
+    event_id VARCHAR(64) NOT NULL,
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_inbox PRIMARY KEY (consumer, event_id)
+);
+
+-- Retention purge
+CREATE INDEX idx_inbox_received_at ON inbox (received_at);
@@ -0,0 +1,5 @@
+-- Scheduled delivery: records are not dispatched before deliver_at
+ALTER TABLE outbox ADD COLUMN deliver_at TIMESTAMP;
+
+-- Next scheduled delivery, so the dispatcher can plan its wakeup
+CREATE INDEX idx_outbox_deliver_at ON outbox (deliver_at) WHERE published = FALSE AND deliver_at IS NOT NULL;
@@ -0,0 +1,5 @@
+-- Dispatch priority: batches are shared between priorities by weight
+ALTER TABLE outbox ADD COLUMN priority VARCHAR(16) NOT NULL DEFAULT 'normal';
+
+-- Due records of one priority: weighted keyset pages and SKIP LOCKED claims
+CREATE INDEX idx_outbox_priority ON outbox (priority, created_at, id) WHERE published = FALSE;
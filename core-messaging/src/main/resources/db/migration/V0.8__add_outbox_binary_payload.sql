@@ -0,0 +1,4 @@
+-- Binary payloads: events of a non-JSON codec keep their encoded bytes and content type instead of jsonb
+ALTER TABLE outbox ADD COLUMN content_type VARCHAR(128);
+ALTER TABLE outbox ADD COLUMN payload_bytes BYTEA;
+ALTER TABLE outbox ALTER COLUMN payload_json DROP NOT NULL;
@@ -0,0 +1,2 @@
+-- Headers pre-encoded for the dispatcher, so publishing needs no JSON parse; headers_json stays for reading
+ALTER TABLE outbox ADD COLUMN headers_bytes BYTEA;
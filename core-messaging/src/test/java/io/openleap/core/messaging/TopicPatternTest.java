@@ -0,0 +1,27 @@
+package io.openleap.core.messaging;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopicPatternTest {
+
+    @Test
+    @DisplayName("Should match routing keys with topic wildcards")
+    void matches_SupportsTopicWildcards() {
+        assertThat(TopicPattern.matches("billing.#", "billing")).isTrue();
+        assertThat(TopicPattern.matches("billing.#", "billing.invoice.created")).isTrue();
+        assertThat(TopicPattern.matches("billing.*", "billing.invoice.created")).isFalse();
+        assertThat(TopicPattern.matches("*.invoice.*", "billing.invoice.created")).isTrue();
+        assertThat(TopicPattern.matches("#.created", "billing.invoice.created")).isTrue();
+        assertThat(TopicPattern.matches("billing.#", "shipping.created")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should match every key with a null pattern and no key without one")
+    void matches_HandlesNullPatternAndKey() {
+        assertThat(TopicPattern.matches(null, "billing.invoice.created")).isTrue();
+        assertThat(TopicPattern.matches("billing.*", null)).isFalse();
+    }
+}
@@ -0,0 +1,109 @@
+package io.openleap.core.messaging.codec;
+
+import io.openleap.core.messaging.RoutingKey;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventCodecsTest {
+
+    private final JacksonEventCodec json = new JacksonEventCodec(new JsonMapper(), MessageProperties.CONTENT_TYPE_JSON);
+    private final JacksonEventCodec cbor = new JacksonEventCodec(CBORMapper.builder().build(), JacksonEventCodec.CONTENT_TYPE_CBOR);
+    private final JacksonEventCodec smile = new JacksonEventCodec(SmileMapper.builder().build(), JacksonEventCodec.CONTENT_TYPE_SMILE);
+
+    @Test
+    @DisplayName("Should pick the codec of the first matching route, then a supporting codec, then the default")
+    void forRoutingKey_AppliesRoutesBeforeDefault() {
+        // given
+        EventCodec avro = new SchemaCodec();
+        EventCodecs codecs = new EventCodecs(List.of(json, cbor, smile, avro), MessageProperties.CONTENT_TYPE_JSON, List.of(
+                new EventCodecs.Route("metrics.#", JacksonEventCodec.CONTENT_TYPE_CBOR),
+                new EventCodecs.Route("#.snapshot", JacksonEventCodec.CONTENT_TYPE_SMILE)));
+
+        // then
+        assertThat(codecs.forRoutingKey(RoutingKey.of("metrics.cpu.sampled"))).isSameAs(cbor);
+        assertThat(codecs.forRoutingKey(RoutingKey.of("order.snapshot"))).isSameAs(smile);
+        assertThat(codecs.forRoutingKey(RoutingKey.withAvroSchema("order.created", null, "https://schemas/order.avsc"))).isSameAs(avro);
+        assertThat(codecs.forRoutingKey(RoutingKey.of("order.created"))).isSameAs(json);
+    }
+
+    @Test
+    @DisplayName("Should look up codecs by content type ignoring parameters and case")
+    void forContentType_IgnoresParameters() {
+        // given
+        EventCodecs codecs = new EventCodecs(List.of(json, cbor), MessageProperties.CONTENT_TYPE_JSON, List.of());
+
+        // then
+        assertThat(codecs.forContentType("Application/CBOR; v=1")).isSameAs(cbor);
+        assertThat(codecs.forContentType("application/x-protobuf")).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fail fast when a route names a content type without codec")
+    void constructor_RejectsUnknownContentType() {
+        assertThatThrownBy(() -> new EventCodecs(List.of(json), MessageProperties.CONTENT_TYPE_JSON,
+                List.of(new EventCodecs.Route("#", JacksonEventCodec.CONTENT_TYPE_CBOR))))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should decode binary bodies by content type and leave JSON to the fallback converter")
+    void codecMessageConverter_DecodesByContentType() {
+        // given
+        EventCodecs codecs = new EventCodecs(List.of(json, cbor), MessageProperties.CONTENT_TYPE_JSON, List.of());
+        CodecMessageConverter converter = new CodecMessageConverter(new JacksonJsonMessageConverter(), codecs);
+        MessageProperties cborProperties = new MessageProperties();
+        cborProperties.setContentType(JacksonEventCodec.CONTENT_TYPE_CBOR);
+        byte[] cborBody = cbor.encode(Map.of("orderId", "42"), RoutingKey.of("order.created"));
+        MessageProperties jsonProperties = new MessageProperties();
+        jsonProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        jsonProperties.setHeader("__TypeId__", LinkedHashMap.class.getName());
+        byte[] jsonBody = "{\"orderId\":\"42\"}".getBytes(StandardCharsets.UTF_8);
+
+        // when
+        Object fromCbor = converter.fromMessage(new Message(cborBody, cborProperties));
+        Object fromJson = converter.fromMessage(new Message(jsonBody, jsonProperties));
+
+        // then
+        assertThat(fromCbor).isEqualTo(Map.of("orderId", "42"));
+        assertThat(fromJson).isEqualTo(Map.of("orderId", "42"));
+    }
+
+    // Stands in for an Avro codec that claims every key declaring an Avro schema
+    private static class SchemaCodec implements EventCodec {
+
+        @Override
+        public String contentType() {
+            return "application/vnd.test+avro";
+        }
+
+        @Override
+        public boolean supports(RoutingKey routingKey) {
+            return routingKey.avroSchemaUrl() != null;
+        }
+
+        @Override
+        public byte[] encode(Object payload, RoutingKey routingKey) {
+            return new byte[0];
+        }
+
+        @Override
+        public Object decode(byte[] body, Type type) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package io.openleap.core.messaging.command;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.openleap.core.common.identity.IdentityHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.Order;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SimpleCommandBusTest {
+
+    @Mock
+    private ApplicationContext applicationContext;
+
+    interface OrderCommand extends Command {
+    }
+
+    record CreateOrder(String customerId) implements OrderCommand {
+    }
+
+    interface UrgentOrderCommand extends OrderCommand {
+    }
+
+    record RushOrder(String customerId) implements UrgentOrderCommand {
+    }
+
+    record Unhandled() implements Command {
+    }
+
+    static class OrderCommandHandler implements CommandHandler<OrderCommand, String> {
+        @Override
+        public Class<OrderCommand> commandType() {
+            return OrderCommand.class;
+        }
+
+        @Override
+        public String handle(OrderCommand command) {
+            return "handled:" + command.getClass().getSimpleName()
+                    + ":" + IdentityHolder.getTenantId() + ":" + MDC.get("traceId");
+        }
+    }
+
+    @Order(2)
+    record RecordingInterceptor(String name, List<String> calls) implements CommandInterceptor {
+        @Override
+        public Object intercept(Command command, Invocation invocation) {
+            calls.add(name);
+            return invocation.proceed();
+        }
+    }
+
+    @Order(1)
+    record FirstInterceptor(List<String> calls) implements CommandInterceptor {
+        @Override
+        public Object intercept(Command command, Invocation invocation) {
+            calls.add("first");
+            return invocation.proceed();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        IdentityHolder.clear();
+        MDC.clear();
+    }
+
+    private SimpleCommandBus bus(ExecutorService executor, CommandInterceptor... interceptors) {
+        return bus(executor, null, interceptors);
+    }
+
+    private SimpleCommandBus bus(ExecutorService executor, CommandMetrics metrics, CommandInterceptor... interceptors) {
+        when(applicationContext.getBeansOfType(CommandHandler.class))
+                .thenReturn(Map.of("orderCommandHandler", new OrderCommandHandler()));
+        Map<String, CommandInterceptor> beans = new HashMap<>();
+        for (int i = 0; i < interceptors.length; i++) {
+            beans.put("interceptor" + i, interceptors[i]);
+        }
+        when(applicationContext.getBeansOfType(CommandInterceptor.class)).thenReturn(beans);
+        return new SimpleCommandBus(applicationContext, executor, Map.of(OrderCommand.class.getName(), 1), metrics, 0L);
+    }
+
+    @Test
+    @DisplayName("Should route a command to the handler registered for its interface")
+    void send_ResolvesHandlerBySupertype() {
+        // given
+        SimpleCommandBus bus = bus(Executors.newVirtualThreadPerTaskExecutor());
+
+        // when
+        String result = bus.send(new CreateOrder("c-1"));
+
+        // then
+        assertThat(result).startsWith("handled:CreateOrder");
+        assertThatThrownBy(() -> bus.send(new Unhandled()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No handler");
+    }
+
+    @Test
+    @DisplayName("Should route a command to the handler registered for a super-interface")
+    void send_ResolvesHandlerBySuperInterface() {
+        // given
+        SimpleCommandBus bus = bus(Executors.newVirtualThreadPerTaskExecutor());
+
+        // when
+        String result = bus.send(new RushOrder("c-1"));
+
+        // then
+        assertThat(result).startsWith("handled:RushOrder");
+    }
+
+    @Test
+    @DisplayName("Should apply the limit of the handler's command type to all subtypes reaching it")
+    void send_SharesConcurrencyLimitAcrossSubtypes() throws Exception {
+        // given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        SimpleCommandBus bus = bus(Executors.newVirtualThreadPerTaskExecutor(), (command, invocation) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+                return invocation.proceed();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        // when
+        CompletableFuture<Object> create = bus.sendAsync(new CreateOrder("c-1"));
+        CompletableFuture<Object> rush = bus.sendAsync(new RushOrder("c-2"));
+        CompletableFuture.allOf(create, rush).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should run interceptors in @Order sequence around the handler")
+    void send_RunsInterceptorsInOrder() {
+        // given
+        List<String> calls = new ArrayList<>();
+        SimpleCommandBus bus = bus(Executors.newVirtualThreadPerTaskExecutor(),
+                new RecordingInterceptor("second", calls), new FirstInterceptor(calls));
+
+        // when
+        bus.send(new CreateOrder("c-1"));
+
+        // then
+        assertThat(calls).containsExactly("first", "second");
+    }
+
+    @Test
+    @DisplayName("Should run async commands on the executor with the caller's identity and MDC")
+    void sendAsync_PropagatesIdentityAndMdc() throws Exception {
+        // given
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        SimpleCommandBus bus = bus(executor);
+        UUID tenantId = UUID.randomUUID();
+        IdentityHolder.setTenantId(tenantId);
+        MDC.put("traceId", "t-1");
+
+        // when
+        String result = bus.<String>sendAsync(new CreateOrder("c-1")).get(5, TimeUnit.SECONDS);
+        // the worker must not keep the caller's context once the command is done
+        UUID leftover = executor.submit(IdentityHolder::getTenantId).get(5, TimeUnit.SECONDS);
+
+        // then
+        assertThat(result).isEqualTo("handled:CreateOrder:" + tenantId + ":t-1");
+        assertThat(leftover).isNull();
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should register meters per handler at startup and record successes and failures")
+    void send_RecordsTimerAndErrorsPerCommandType() {
+        // given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SimpleCommandBus bus = bus(Executors.newVirtualThreadPerTaskExecutor(), new CommandMetrics(registry),
+                new FailingInterceptor());
+        String command = OrderCommand.class.getName();
+        assertThat(registry.find("command.handle").tag("command", command).timers()).hasSize(2);
+
+        // when
+        bus.send(new CreateOrder("c-1"));
+        assertThatThrownBy(() -> bus.send(new CreateOrder("fail")))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // then
+        assertThat(registry.get("command.handle").tags("command", command, "outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(registry.get("command.handle").tags("command", command, "outcome", "failure").timer().count()).isEqualTo(1);
+        assertThat(registry.get("command.errors").tag("command", command).counter().count()).isEqualTo(1.0);
+    }
+
+    static class FailingInterceptor implements CommandInterceptor {
+        @Override
+        public Object intercept(Command command, Invocation invocation) {
+            if (command instanceof CreateOrder order && order.customerId().equals("fail")) {
+                throw new IllegalArgumentException("rejected");
+            }
+            return invocation.proceed();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.openleap.core.messaging.config;
+
+import io.openleap.core.messaging.exception.NonRetryableException;
+import io.openleap.core.messaging.exception.RetryableException;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DelayedRetryAdviceTest {
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private MethodInvocation invocation;
+
+    private DelayedRetryAdvice advice;
+
+    @BeforeEach
+    void setUp() {
+        MessagingProperties.Retry retry = new MessagingProperties.Retry();
+        retry.setQueues(List.of("orders.queue"));
+        advice = new DelayedRetryAdvice(rabbitTemplate, retry, 100);
+    }
+
+    @Test
+    @DisplayName("Should republish a retryable failure to the delay queue of its next attempt")
+    void invoke_RepublishesToDelayQueue_WhenRetryable() throws Throwable {
+        // given
+        Message message = message(null);
+        when(invocation.getArguments()).thenReturn(new Object[]{null, message});
+        when(invocation.proceed()).thenThrow(new RetryableException("downstream busy"));
+        confirmWith(new CorrelationData.Confirm(true, null), null);
+
+        // when
+        advice.invoke(invocation);
+
+        // then
+        verify(rabbitTemplate).send(eq(""), eq("orders.queue.retry.1"), same(message), any(CorrelationData.class));
+        assertThat(message.getMessageProperties().<Integer>getHeader(DelayedRetryAdvice.RETRY_COUNT_HEADER)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject instead of acking when the delay queue does not take the message")
+    void invoke_Rejects_WhenRetryNotConfirmed() throws Throwable {
+        // given
+        Message message = message(null);
+        when(invocation.getArguments()).thenReturn(new Object[]{null, message});
+        when(invocation.proceed()).thenThrow(new RetryableException("downstream busy"));
+        confirmWith(new CorrelationData.Confirm(true, null),
+                new ReturnedMessage(message, 312, "NO_ROUTE", "", "orders.queue.retry.1"));
+
+        // when / then
+        assertThatThrownBy(() -> advice.invoke(invocation))
+                .isInstanceOf(AmqpRejectAndDontRequeueException.class)
+                .hasMessageContaining("NO_ROUTE");
+    }
+
+    @Test
+    @DisplayName("Should reject when the broker does not confirm the retry in time")
+    void invoke_Rejects_WhenConfirmTimesOut() throws Throwable {
+        // given
+        when(invocation.getArguments()).thenReturn(new Object[]{null, message(null)});
+        when(invocation.proceed()).thenThrow(new RetryableException("downstream busy"));
+
+        // when / then
+        assertThatThrownBy(() -> advice.invoke(invocation)).isInstanceOf(AmqpRejectAndDontRequeueException.class);
+        verify(rabbitTemplate).send(eq(""), eq("orders.queue.retry.1"), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    @DisplayName("Should reject the message once max attempts are used up")
+    void invoke_Rejects_WhenAttemptsExhausted() throws Throwable {
+        // given
+        Message message = message(2);
+        when(invocation.getArguments()).thenReturn(new Object[]{null, message});
+        when(invocation.proceed()).thenThrow(new RetryableException("downstream busy"));
+
+        // when / then
+        assertThatThrownBy(() -> advice.invoke(invocation)).isInstanceOf(AmqpRejectAndDontRequeueException.class);
+        verify(rabbitTemplate, never()).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    @DisplayName("Should reject non-retryable failures right away")
+    void invoke_Rejects_WhenNonRetryable() throws Throwable {
+        // given
+        when(invocation.getArguments()).thenReturn(new Object[]{null, message(null)});
+        when(invocation.proceed()).thenThrow(new NonRetryableException("invalid payload"));
+
+        // when / then
+        assertThatThrownBy(() -> advice.invoke(invocation)).isInstanceOf(AmqpRejectAndDontRequeueException.class);
+        verify(rabbitTemplate, never()).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    @DisplayName("Should grow the delay exponentially up to the max interval")
+    void delayMillis_FollowsBackoff() {
+        MessagingProperties.Retry retry = new MessagingProperties.Retry();
+
+        assertThat(DelayedRetryAdvice.delayMillis(retry, 1)).isEqualTo(1000L);
+        assertThat(DelayedRetryAdvice.delayMillis(retry, 2)).isEqualTo(2000L);
+        assertThat(DelayedRetryAdvice.delayMillis(retry, 5)).isEqualTo(10000L);
+    }
+
+    private void confirmWith(CorrelationData.Confirm confirm, ReturnedMessage returned) {
+        doAnswer(invocation -> {
+            CorrelationData cd = invocation.getArgument(3);
+            cd.setReturned(returned);
+            cd.getFuture().complete(confirm);
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    private static Message message(Integer retryCount) {
+        MessageProperties properties = new MessageProperties();
+        properties.setConsumerQueue("orders.queue");
+        if (retryCount != null) {
+            properties.setHeader(DelayedRetryAdvice.RETRY_COUNT_HEADER, retryCount);
+        }
+        return new Message(new byte[0], properties);
+    }
+}
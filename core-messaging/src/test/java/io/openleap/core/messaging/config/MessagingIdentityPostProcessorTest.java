@@ -0,0 +1,105 @@
+package io.openleap.core.messaging.config;
+
+import io.openleap.core.common.identity.IdentityHolder;
+import io.openleap.core.security.config.SecurityProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessagingIdentityPostProcessorTest {
+
+    private final MessagingIdentityPostProcessor identityPostProcessor = new MessagingIdentityPostProcessor(Optional.empty());
+
+    @AfterEach
+    void tearDown() {
+        IdentityHolder.clear();
+    }
+
+    @Test
+    @DisplayName("Should drop a message without identity from the batch and leave no identity behind")
+    void forBatch_DiscardsMessageWithoutIdentity() throws Exception {
+        // given
+        MessagePostProcessor batchPostProcessor = identityPostProcessor.forBatch();
+        Message valid = message(UUID.randomUUID(), UUID.randomUUID());
+        Message invalid = new Message(new byte[0], new MessageProperties());
+
+        // when
+        Message kept = batchPostProcessor.postProcessMessage(valid);
+        Message dropped = batchPostProcessor.postProcessMessage(invalid);
+
+        // then
+        assertThat(kept).isSameAs(valid);
+        assertThat(dropped).isNull();
+        assertThat(IdentityHolder.getTenantId()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should bind the identity of each message only while it is handled")
+    void withIdentity_BindsIdentityPerMessage() {
+        // given
+        UUID tenant = UUID.randomUUID();
+        Message message = message(tenant, UUID.randomUUID());
+        AtomicReference<UUID> seen = new AtomicReference<>();
+
+        // when
+        identityPostProcessor.withIdentity(message, m -> seen.set(IdentityHolder.getTenantId()));
+
+        // then
+        assertThat(seen.get()).isEqualTo(tenant);
+        assertThat(IdentityHolder.getTenantId()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should restore the identity of a repeated token from the cache in iamsec mode")
+    void postProcessMessage_ResolvesJwtIdentity_AcrossRepeatedTokens() {
+        // given
+        SecurityProperties security = new SecurityProperties();
+        security.getMessaging().setMode(SecurityProperties.Mode.iamsec);
+        MessagingIdentityPostProcessor cachingPostProcessor = new MessagingIdentityPostProcessor(Optional.of(security), 16);
+        UUID tenant = UUID.randomUUID();
+        UUID user = UUID.randomUUID();
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        String jwt = jwt("{\"tenantId\":\"" + tenant + "\",\"sub\":\"" + user + "\",\"roles\":[\"admin\"],\"exp\":" + exp + "}");
+
+        for (int i = 0; i < 2; i++) {
+            // when
+            cachingPostProcessor.postProcessMessage(jwtMessage(jwt));
+
+            // then
+            assertThat(IdentityHolder.getTenantId()).isEqualTo(tenant);
+            assertThat(IdentityHolder.getUserId()).isEqualTo(user);
+            assertThat(IdentityHolder.getRoles()).containsExactly("admin");
+            IdentityHolder.clear();
+        }
+    }
+
+    private static String jwt(String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + ".sig";
+    }
+
+    private static Message jwtMessage(String jwt) {
+        MessageProperties properties = new MessageProperties();
+        properties.setHeader(MessagingIdentityPostProcessor.HDR_JWT, jwt);
+        return new Message(new byte[0], properties);
+    }
+
+    private static Message message(UUID tenant, UUID user) {
+        MessageProperties properties = new MessageProperties();
+        properties.setHeader(MessagingIdentityPostProcessor.HDR_TENANT, tenant.toString());
+        properties.setHeader(MessagingIdentityPostProcessor.HDR_USER, user.toString());
+        return new Message(new byte[0], properties);
+    }
+}
@@ -0,0 +1,80 @@
+package io.openleap.core.messaging.dispatcher;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxCircuitBreakerTest {
+
+    @Test
+    @DisplayName("Should permit everything while closed and open after the failure threshold")
+    void opens_AfterConsecutiveFailures() {
+        // given
+        OutboxCircuitBreaker circuitBreaker = new OutboxCircuitBreaker(2, 60_000);
+
+        // when
+        circuitBreaker.onBrokerUnavailable();
+        int permitsBeforeThreshold = circuitBreaker.permits(10);
+        circuitBreaker.onBrokerUnavailable();
+
+        // then
+        assertThat(permitsBeforeThreshold).isEqualTo(10);
+        assertThat(circuitBreaker.getState()).isEqualTo(OutboxCircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.isRejecting()).isTrue();
+        assertThat(circuitBreaker.permits(10)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reset the failure count when the broker answers")
+    void staysClosed_WhenFailuresAreNotConsecutive() {
+        // given
+        OutboxCircuitBreaker circuitBreaker = new OutboxCircuitBreaker(2, 60_000);
+
+        // when
+        circuitBreaker.onBrokerUnavailable();
+        circuitBreaker.onBrokerReachable();
+        circuitBreaker.onBrokerUnavailable();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(OutboxCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("Should let a single probe through after the open duration and close on its success")
+    void halfOpen_AllowsSingleProbe() {
+        // given
+        OutboxCircuitBreaker circuitBreaker = new OutboxCircuitBreaker(1, 0);
+        circuitBreaker.onBrokerUnavailable();
+
+        // when
+        int probe = circuitBreaker.permits(10);
+        int concurrent = circuitBreaker.permits(10);
+
+        // then
+        assertThat(probe).isEqualTo(1);
+        assertThat(concurrent).isZero();
+        assertThat(circuitBreaker.getState()).isEqualTo(OutboxCircuitBreaker.State.HALF_OPEN);
+
+        circuitBreaker.onBrokerReachable();
+        assertThat(circuitBreaker.getState()).isEqualTo(OutboxCircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.permits(10)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should open again when the probe fails")
+    void halfOpen_ReopensOnFailedProbe() {
+        // given
+        OutboxCircuitBreaker circuitBreaker = new OutboxCircuitBreaker(3, 0);
+        circuitBreaker.onBrokerUnavailable();
+        circuitBreaker.onBrokerUnavailable();
+        circuitBreaker.onBrokerUnavailable();
+        circuitBreaker.permits(1);
+
+        // when
+        circuitBreaker.onBrokerUnavailable();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(OutboxCircuitBreaker.State.OPEN);
+    }
+}
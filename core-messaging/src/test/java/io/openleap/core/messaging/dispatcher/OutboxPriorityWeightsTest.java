@@ -0,0 +1,61 @@
+package io.openleap.core.messaging.dispatcher;
+
+import io.openleap.core.messaging.event.EventPriority;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OutboxPriorityWeightsTest {
+
+    private final OutboxPriorityWeights weights = new OutboxPriorityWeights(Map.of(
+            EventPriority.HIGH, 8, EventPriority.NORMAL, 4, EventPriority.LOW, 1));
+
+    @Test
+    @DisplayName("Should share the capacity by weight and give the rounding leftover to the highest priority")
+    void shares_FollowWeights() {
+        // when
+        Map<EventPriority, Integer> shares = weights.shares(weights.priorities(), 100);
+
+        // then
+        assertThat(shares).containsEntry(EventPriority.HIGH, 63)
+                .containsEntry(EventPriority.NORMAL, 30)
+                .containsEntry(EventPriority.LOW, 7);
+        assertThat(shares.values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should give every priority at least one record while capacity lasts")
+    void shares_NeverStarveLowPriority() {
+        // when
+        Map<EventPriority, Integer> shares = weights.shares(weights.priorities(), 3);
+
+        // then
+        assertThat(shares).containsEntry(EventPriority.HIGH, 1)
+                .containsEntry(EventPriority.NORMAL, 1)
+                .containsEntry(EventPriority.LOW, 1);
+    }
+
+    @Test
+    @DisplayName("Should split the capacity among the remaining priorities only")
+    void shares_IgnoreInactivePriorities() {
+        // when
+        Map<EventPriority, Integer> shares = weights.shares(List.of(EventPriority.NORMAL, EventPriority.LOW), 50);
+
+        // then
+        assertThat(shares).doesNotContainKey(EventPriority.HIGH)
+                .containsEntry(EventPriority.NORMAL, 40)
+                .containsEntry(EventPriority.LOW, 10);
+    }
+
+    @Test
+    @DisplayName("Should reject weights below one")
+    void constructor_RejectsZeroWeight() {
+        assertThatThrownBy(() -> new OutboxPriorityWeights(Map.of(EventPriority.LOW, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,48 @@
+package io.openleap.core.messaging.dispatcher;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxRateLimiterTest {
+
+    @Test
+    @DisplayName("Should let the burst through and defer the rest to consecutive slots")
+    void tryAcquire_DefersBeyondBurst() {
+        // given
+        OutboxRateLimiter limiter = new OutboxRateLimiter(List.of(
+                new OutboxRateLimiter.Rule("*", "billing.#", 1, 2)));
+
+        // when
+        long first = limiter.tryAcquire("ex", "billing.created");
+        long second = limiter.tryAcquire("ex", "billing.created");
+        long third = limiter.tryAcquire("ex", "billing.created");
+        long fourth = limiter.tryAcquire("ex", "billing.created");
+
+        // then
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isBetween(900L, 1000L);
+        assertThat(fourth).isBetween(1900L, 2000L);
+        assertThat(limiter.takeEarliestDeferral()).isBetween(1L, 1000L);
+        assertThat(limiter.takeEarliestDeferral()).isEqualTo(-1L);
+    }
+
+    @Test
+    @DisplayName("Should not limit routes without a matching rule")
+    void tryAcquire_IgnoresUnmatchedRoutes() {
+        // given
+        OutboxRateLimiter limiter = new OutboxRateLimiter(List.of(
+                new OutboxRateLimiter.Rule("billing-exchange", "#", 1, 1)));
+
+        // when
+        limiter.tryAcquire("billing-exchange", "any");
+
+        // then
+        assertThat(limiter.tryAcquire("other-exchange", "any")).isZero();
+        assertThat(limiter.tryAcquire("billing-exchange", "any")).isPositive();
+    }
+}
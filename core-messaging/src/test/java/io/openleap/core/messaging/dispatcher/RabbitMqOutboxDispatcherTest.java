@@ -4,22 +4,31 @@ package io.openleap.core.messaging.dispatcher;
 import io.openleap.core.messaging.OutboxTestData;
 import io.openleap.core.messaging.dispatcher.rabbitmq.RabbitMqOutboxDispatcher;
 import io.openleap.core.messaging.entity.OutboxEvent;
+import io.openleap.core.messaging.entity.OutboxHeaders;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.amqp.core.MessagePostProcessor;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import tools.jackson.databind.json.JsonMapper;
 
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -51,15 +60,84 @@ class RabbitMqOutboxDispatcherTest {
         // then
         assertThat(result.success()).isTrue();
 
-        verify(rabbitTemplate).convertAndSend(
+        verify(rabbitTemplate).send(
                 eq("test-exchange"),
                 eq("test-rk"),
-                eq(Map.of("data", "test")),
-                any(MessagePostProcessor.class),
+                any(Message.class),
                 any(CorrelationData.class)
         );
     }
 
+    @Test
+    @DisplayName("Should send the stored payload bytes as JSON body with the stored headers")
+    void dispatch_SendsStoredPayloadBytes_WithoutReserializing() throws Exception {
+        // given
+        OutboxEvent event = OutboxTestData.createEvent();
+        setupMockConfirm(true, null);
+
+        // when
+        dispatcher.dispatch(event);
+
+        // then
+        ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate).send(eq("test-exchange"), eq("test-rk"), messageCaptor.capture(), any(CorrelationData.class));
+
+        Message message = messageCaptor.getValue();
+        assertThat(new String(message.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"data\":\"test\"}");
+        assertThat(message.getMessageProperties())
+                .returns(MessageProperties.CONTENT_TYPE_JSON, MessageProperties::getContentType)
+                .returns("UTF-8", MessageProperties::getContentEncoding);
+        assertThat((String) message.getMessageProperties().getHeader("x-trace-id")).isEqualTo("123");
+    }
+
+    @Test
+    @DisplayName("Should send pre-encoded headers without reading the JSON headers")
+    void dispatch_SendsPreEncodedHeaders() throws Exception {
+        // given
+        OutboxEvent event = OutboxTestData.createEvent();
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("x-trace-id", "456");
+        headers.put("eventId", "e-1");
+        event.setHeadersBytes(OutboxHeaders.encode(headers));
+        event.setHeadersJson("not json");
+        setupMockConfirm(true, null);
+
+        // when
+        dispatcher.dispatch(event);
+
+        // then
+        ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate).send(eq("test-exchange"), eq("test-rk"), messageCaptor.capture(), any(CorrelationData.class));
+        assertThat(messageCaptor.getValue().getMessageProperties().getHeaders())
+                .containsEntry("x-trace-id", "456")
+                .containsEntry("eventId", "e-1");
+    }
+
+    @Test
+    @DisplayName("Should send the bytes of a binary codec with their content type")
+    void dispatch_SendsBinaryPayload_WithStoredContentType() throws Exception {
+        // given
+        OutboxEvent event = OutboxTestData.createEvent();
+        event.setPayloadJson(null);
+        event.setPayloadBytes(new byte[]{(byte) 0xbf, (byte) 0xff});
+        event.setContentType("application/cbor");
+        setupMockConfirm(true, null);
+
+        // when
+        dispatcher.dispatch(event);
+
+        // then
+        ArgumentCaptor<Message> messageCaptor = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate).send(eq("test-exchange"), eq("test-rk"), messageCaptor.capture(), any(CorrelationData.class));
+
+        Message message = messageCaptor.getValue();
+        assertThat(message.getBody()).containsExactly((byte) 0xbf, (byte) 0xff);
+        assertThat(message.getMessageProperties())
+                .returns("application/cbor", MessageProperties::getContentType)
+                .returns(null, MessageProperties::getContentEncoding);
+        assertThat(message.getMessageProperties().getHeaders()).doesNotContainKey("__TypeId__");
+    }
+
     @Test
     @DisplayName("Should return failure with reason when RabbitMQ returns NACK")
     void dispatch_Failure_WhenNackReceived() throws Exception {
@@ -89,12 +167,56 @@ class RabbitMqOutboxDispatcherTest {
         // then
         assertThat(result)
                 .returns(false, DispatchResult::success)
-                .returns("No confirm (timeout)", DispatchResult::reason);
+                .returns("No confirm (timeout)", DispatchResult::reason)
+                .returns(true, DispatchResult::brokerUnavailable);
+    }
+
+    @Test
+    @DisplayName("Should report the broker as unavailable when the connection cannot be established")
+    void dispatch_BrokerUnavailable_WhenConnectionRefused() throws Exception {
+        // given
+        OutboxEvent event = OutboxTestData.createEvent();
+        doThrow(new AmqpConnectException(new ConnectException("Connection refused")))
+                .when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        // when
+        DispatchResult result = dispatcher.dispatch(event);
+
+        // then
+        assertThat(result)
+                .returns(false, DispatchResult::success)
+                .returns(true, DispatchResult::brokerUnavailable);
+    }
+
+    @Test
+    @DisplayName("Should publish the whole window and return one result per confirm")
+    void dispatchAll_ReturnsResultPerEvent_WhenConfirmsDiffer() {
+        // given
+        OutboxEvent acked = OutboxTestData.createEvent();
+        OutboxEvent nacked = OutboxTestData.createEvent();
+        nacked.setId(2L);
+        doAnswer(invocation -> {
+            CorrelationData cd = invocation.getArgument(3);
+            boolean ack = "1".equals(cd.getId());
+            cd.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "Rejected"));
+            return null;
+        }).when(rabbitTemplate).send(
+                anyString(),
+                anyString(),
+                any(Message.class),
+                any(CorrelationData.class)
+        );
+
+        // when
+        List<DispatchResult> results = dispatcher.dispatchAll(List.of(acked, nacked));
+
+        // then
+        assertThat(results).containsExactly(DispatchResult.ok(), DispatchResult.fail("Rejected"));
     }
 
     private void setupMockConfirm(boolean ack, String reason) {
         doAnswer(invocation -> {
-            CorrelationData cd = invocation.getArgument(4);
+            CorrelationData cd = invocation.getArgument(3);
 
             CorrelationData.Confirm confirm =
                     new CorrelationData.Confirm(ack, reason);
@@ -103,11 +225,10 @@ class RabbitMqOutboxDispatcherTest {
             cd.getFuture().complete(confirm);
 
             return null;
-        }).when(rabbitTemplate).convertAndSend(
+        }).when(rabbitTemplate).send(
                 anyString(),
                 anyString(),
-                any(Object.class),
-                any(MessagePostProcessor.class),
+                any(Message.class),
                 any(CorrelationData.class)
         );
     }
@@ -118,11 +239,10 @@ class RabbitMqOutboxDispatcherTest {
             // won't complete future to throw TimeoutException
 
             return null;
-        }).when(rabbitTemplate).convertAndSend(
+        }).when(rabbitTemplate).send(
                 anyString(),
                 anyString(),
-                any(Object.class),
-                any(MessagePostProcessor.class),
+                any(Message.class),
                 any(CorrelationData.class)
         );
     }
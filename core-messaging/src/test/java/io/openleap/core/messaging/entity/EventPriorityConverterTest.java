@@ -0,0 +1,32 @@
+package io.openleap.core.messaging.entity;
+
+import io.openleap.core.messaging.event.EventPriority;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EventPriorityConverterTest {
+
+    private final EventPriorityConverter converter = new EventPriorityConverter();
+
+    @Test
+    @DisplayName("Should store priorities by their lowercase column value")
+    void convertToDatabaseColumn_UsesLowercaseValue() {
+        assertThat(converter.convertToDatabaseColumn(EventPriority.HIGH)).isEqualTo("high");
+        assertThat(converter.convertToDatabaseColumn(EventPriority.NORMAL)).isEqualTo("normal");
+        assertThat(converter.convertToDatabaseColumn(EventPriority.LOW)).isEqualTo("low");
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should read stored column values back and reject unknown ones")
+    void convertToEntityAttribute_ReadsLowercaseValue() {
+        assertThat(converter.convertToEntityAttribute("high")).isEqualTo(EventPriority.HIGH);
+        assertThat(converter.convertToEntityAttribute("low")).isEqualTo(EventPriority.LOW);
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+        assertThatThrownBy(() -> converter.convertToEntityAttribute("urgent"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -26,9 +26,15 @@ package io.openleap.core.messaging.event;
 import io.openleap.core.ReflectionUtils;
 import io.openleap.core.messaging.MessageCoverageTracker;
 import io.openleap.core.messaging.RoutingKey;
+import io.openleap.core.messaging.codec.EventCodec;
+import io.openleap.core.messaging.codec.EventCodecs;
+import io.openleap.core.messaging.codec.JacksonEventCodec;
 import io.openleap.core.messaging.config.MessagingProperties;
 import io.openleap.core.messaging.entity.OutboxEvent;
+import io.openleap.core.messaging.entity.OutboxHeaders;
 import io.openleap.core.messaging.repository.OutboxRepository;
+import io.openleap.core.messaging.service.OutboxDirectPublisher;
+import io.openleap.core.messaging.service.OutboxNotifier;
 import io.openleap.core.messaging.service.OutboxOrchestrator;
 import org.assertj.core.api.InstanceOfAssertFactories;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,11 +42,18 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -108,6 +121,203 @@ class EventPublisherTest {
                 // We switch the focus to the Headers string for the final check
                 .extracting(OutboxEvent::getHeadersJson, InstanceOfAssertFactories.STRING)
                 .contains("custom-header", "test");
+
+        Map<String, String> encodedHeaders = new HashMap<>();
+        OutboxHeaders.decode(captured.getHeadersBytes(), encodedHeaders::put);
+        assertThat(encodedHeaders)
+                .containsEntry("custom-header", "test")
+                .containsKey("eventId");
     }
 
+    @DisplayName("Should persist the requested priority and default to normal")
+    @Test
+    void enqueue_PersistsPriority() {
+        // given
+        RoutingKey routingKey = new RoutingKey("order.created", "Order Created Event", null, null);
+        when(jsonMapper.writeValueAsString(any())).thenReturn("{}");
+
+        // when
+        eventPublisher.enqueue(EventPriority.HIGH, routingKey, BaseDomainEvent.builder().build(), null);
+        eventPublisher.enqueue(routingKey, BaseDomainEvent.builder().build(), null);
+
+        // then
+        ArgumentCaptor<OutboxEvent> eventCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository, times(2)).save(eventCaptor.capture());
+        assertThat(eventCaptor.getAllValues()).extracting(OutboxEvent::getPriority)
+                .containsExactly(EventPriority.HIGH, EventPriority.NORMAL);
+    }
+
+    @DisplayName("Should store the encoded bytes and content type when a binary codec is selected")
+    @Test
+    void enqueue_StoresBinaryPayload_WhenCodecSelectsBinaryFormat() {
+        // given
+        EventCodec cbor = new JacksonEventCodec(CBORMapper.builder().build(), JacksonEventCodec.CONTENT_TYPE_CBOR);
+        EventCodecs codecs = new EventCodecs(List.of(new JacksonEventCodec(new JsonMapper(), MessageProperties.CONTENT_TYPE_JSON), cbor),
+                MessageProperties.CONTENT_TYPE_JSON, List.of(new EventCodecs.Route("metrics.#", JacksonEventCodec.CONTENT_TYPE_CBOR)));
+        EventPublisher publisher = new EventPublisher(config, outboxRepository, jsonMapper, null,
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(codecs));
+        ReflectionUtils.setField(publisher, "eventsExchange", "test-exchange");
+        when(jsonMapper.writeValueAsString(any())).thenReturn("{}");
+
+        // when
+        publisher.enqueue(RoutingKey.of("metrics.cpu.sampled"), BaseDomainEvent.builder().build(), null);
+
+        // then
+        ArgumentCaptor<OutboxEvent> eventCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(eventCaptor.capture());
+        assertThat(eventCaptor.getValue())
+                .returns(null, OutboxEvent::getPayloadJson)
+                .returns(JacksonEventCodec.CONTENT_TYPE_CBOR, OutboxEvent::getContentType);
+        assertThat(eventCaptor.getValue().getPayloadBytes()).isNotEmpty();
+    }
+
+    @DisplayName("Should buffer events of one transaction and insert them in one batch with a single wakeup")
+    @Test
+    @SuppressWarnings("unchecked")
+    void enqueueAll_InsertsOnceAndWakesUpOnce_WhenTransactionCommits() {
+        // given
+        ReflectionUtils.setField(eventPublisher, "wakeupAfterCommit", true);
+        RoutingKey routingKey = new RoutingKey("order.created", "Order Created Event", null, null);
+        BaseDomainEvent payload = BaseDomainEvent.builder().build();
+        when(jsonMapper.writeValueAsString(any())).thenReturn("{}");
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // when
+            eventPublisher.enqueueAll(List.of(
+                    OutgoingEvent.of(routingKey, payload),
+                    OutgoingEvent.of("other-exchange", routingKey, payload, Map.of("k", "v"))));
+            eventPublisher.enqueue(routingKey, payload, null);
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(sync -> sync.beforeCommit(false));
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            // then
+            assertThat(synchronizations).hasSize(1);
+            ArgumentCaptor<List<OutboxEvent>> captor = ArgumentCaptor.forClass(List.class);
+            verify(outboxRepository).insertAll(captor.capture(), eq(50));
+            assertThat(captor.getValue())
+                    .extracting(OutboxEvent::getExchangeKey)
+                    .containsExactly("test-exchange", "other-exchange", "test-exchange");
+            verify(outboxRepository, never()).save(any());
+            verify(outboxOrchestrator, times(1)).wakeup();
+            assertThat(TransactionSynchronizationManager.hasResource(eventPublisher)).isFalse();
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+
+    @DisplayName("Should queue one cross-node notification per transaction when a notifier is configured")
+    @Test
+    void enqueue_NotifiesOncePerTransaction_WhenNotifierPresent() {
+        // given
+        OutboxNotifier outboxNotifier = mock(OutboxNotifier.class);
+        EventPublisher publisher = new EventPublisher(config, outboxRepository, jsonMapper, outboxOrchestrator,
+                Optional.empty(), Optional.of(outboxNotifier), Optional.empty(), Optional.empty());
+        RoutingKey routingKey = new RoutingKey("order.created", "Order Created Event", null, null);
+        when(jsonMapper.writeValueAsString(any())).thenReturn("{}");
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // when
+            publisher.enqueue("test-exchange", routingKey, BaseDomainEvent.builder().build(), null);
+            publisher.enqueue("test-exchange", routingKey, BaseDomainEvent.builder().build(), null);
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+
+            // then
+            verify(outboxNotifier, times(1)).notifyOnCommit();
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @DisplayName("Should lease the rows and hand them to the direct publisher instead of waking up the dispatcher")
+    @Test
+    @SuppressWarnings("unchecked")
+    void enqueue_PublishesDirectlyAfterCommit_WhenDirectPublisherAvailable() {
+        // given
+        OutboxNotifier outboxNotifier = mock(OutboxNotifier.class);
+        OutboxDirectPublisher directPublisher = mock(OutboxDirectPublisher.class);
+        when(directPublisher.isAvailable()).thenReturn(true);
+        EventPublisher publisher = new EventPublisher(config, outboxRepository, jsonMapper, outboxOrchestrator,
+                Optional.empty(), Optional.of(outboxNotifier), Optional.of(directPublisher), Optional.empty());
+        ReflectionUtils.setField(publisher, "wakeupAfterCommit", true);
+        RoutingKey routingKey = new RoutingKey("order.created", "Order Created Event", null, null);
+        when(jsonMapper.writeValueAsString(any())).thenReturn("{}");
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // when
+            publisher.enqueue("test-exchange", routingKey, BaseDomainEvent.builder().build(), null);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(sync -> sync.beforeCommit(false));
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+            // then
+            InOrder inOrder = inOrder(directPublisher, outboxRepository);
+            inOrder.verify(directPublisher).lease(anyList());
+            inOrder.verify(outboxRepository).insertAll(anyList(), anyInt());
+            ArgumentCaptor<List<OutboxEvent>> captor = ArgumentCaptor.forClass(List.class);
+            verify(directPublisher).publishAfterCommit(captor.capture());
+            assertThat(captor.getValue()).hasSize(1);
+            verify(outboxNotifier, never()).notifyOnCommit();
+            verify(outboxOrchestrator, never()).wakeup();
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @DisplayName("Should keep scheduled events off the direct path and request a pass at their delivery time")
+    @Test
+    @SuppressWarnings("unchecked")
+    void enqueueAt_SchedulesWakeupAndSkipsDirectPublish_WhenDeliveryIsInTheFuture() {
+        // given
+        OutboxDirectPublisher directPublisher = mock(OutboxDirectPublisher.class);
+        when(directPublisher.isAvailable()).thenReturn(true);
+        EventPublisher publisher = new EventPublisher(config, outboxRepository, jsonMapper, outboxOrchestrator,
+                Optional.empty(), Optional.empty(), Optional.of(directPublisher), Optional.empty());
+        ReflectionUtils.setField(publisher, "wakeupAfterCommit", true);
+        RoutingKey routingKey = new RoutingKey("order.reminder", "Order Reminder Event", null, null);
+        Instant deliverAt = Instant.now().plusSeconds(600);
+        when(jsonMapper.writeValueAsString(any())).thenReturn("{}");
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // when
+            publisher.enqueueAt(deliverAt, "test-exchange", routingKey, BaseDomainEvent.builder().build(), null);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(sync -> sync.beforeCommit(false));
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+            // then
+            ArgumentCaptor<List<OutboxEvent>> captor = ArgumentCaptor.forClass(List.class);
+            verify(outboxRepository).insertAll(captor.capture(), anyInt());
+            assertThat(captor.getValue()).singleElement()
+                    .extracting(OutboxEvent::getDeliverAt)
+                    .isEqualTo(deliverAt);
+            verify(directPublisher, never()).lease(anyList());
+            verify(directPublisher, never()).publishAfterCommit(anyList());
+            verify(outboxOrchestrator).wakeupAt(deliverAt);
+            verify(outboxOrchestrator, never()).wakeup();
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
 }
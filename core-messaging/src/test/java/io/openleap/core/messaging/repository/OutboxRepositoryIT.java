@@ -0,0 +1,138 @@
+package io.openleap.core.messaging.repository;
+
+import io.openleap.core.TestConfig;
+import io.openleap.core.messaging.OutboxTestData;
+import io.openleap.core.messaging.app.MessagingTestApplication;
+import io.openleap.core.messaging.entity.OutboxEvent;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.rabbitmq.RabbitMQContainer;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = {MessagingTestApplication.class, TestConfig.class},
+        properties = "ol.messaging.outbox.dispatcher.enabled=false")
+@Testcontainers
+@ActiveProfiles("test")
+@Transactional
+class OutboxRepositoryIT {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Container
+    static RabbitMQContainer rabbit = new RabbitMQContainer("rabbitmq:4.2-management");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.rabbitmq.host", rabbit::getHost);
+        registry.add("spring.rabbitmq.port", rabbit::getAmqpPort);
+    }
+
+    @Autowired
+    OutboxRepository outboxRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @BeforeEach
+    void setup() {
+        outboxRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("Should count only due records below the attempt limit as pending")
+    void countPending_CountsOnlyDueRecords() {
+        // given
+        Instant now = Instant.now();
+        outboxRepository.saveAllAndFlush(List.of(
+                event(0, null, null, false),
+                event(1, now.minus(1, ChronoUnit.MINUTES), null, false),
+                event(1, now.plus(1, ChronoUnit.HOURS), null, false),
+                event(0, null, now.plus(1, ChronoUnit.HOURS), false),
+                event(MAX_ATTEMPTS, null, null, false),
+                event(0, null, null, true)));
+
+        // when
+        long pending = outboxRepository.countPending(MAX_ATTEMPTS);
+
+        // then
+        assertThat(pending).isEqualTo(2);
+        assertThat(outboxRepository.countByPublishedFalse()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should count parked records and list them oldest first up to the limit")
+    void findParked_ReturnsOldestParkedRecords_UpToLimit() {
+        // given
+        OutboxEvent oldest = event(MAX_ATTEMPTS, null, null, false);
+        OutboxEvent middle = event(MAX_ATTEMPTS + 2, null, null, false);
+        OutboxEvent newest = event(MAX_ATTEMPTS, null, null, false);
+        outboxRepository.saveAndFlush(oldest);
+        outboxRepository.saveAndFlush(middle);
+        outboxRepository.saveAndFlush(newest);
+        outboxRepository.saveAllAndFlush(List.of(
+                event(MAX_ATTEMPTS - 1, null, null, false),
+                event(MAX_ATTEMPTS, Instant.now().plus(1, ChronoUnit.HOURS), null, false),
+                event(MAX_ATTEMPTS, null, null, true)));
+
+        // when
+        List<OutboxEvent> parked = outboxRepository.findParked(MAX_ATTEMPTS, Limit.of(2));
+
+        // then
+        assertThat(outboxRepository.countParked(MAX_ATTEMPTS)).isEqualTo(3);
+        assertThat(parked)
+                .extracting(OutboxEvent::getId)
+                .containsExactly(oldest.getId(), middle.getId());
+    }
+
+    @Test
+    @DisplayName("Should reset the oldest parked records up to the limit in one update")
+    void replayParked_ResetsOldestParkedRecords_UpToLimit() {
+        // given
+        OutboxEvent oldest = event(MAX_ATTEMPTS, null, null, false);
+        OutboxEvent newest = event(MAX_ATTEMPTS, null, null, false);
+        oldest.setLastError("Connection refused");
+        outboxRepository.saveAndFlush(oldest);
+        outboxRepository.saveAndFlush(newest);
+
+        // when
+        int replayed = outboxRepository.replayParked(MAX_ATTEMPTS, 1);
+        entityManager.clear();
+
+        // then
+        assertThat(replayed).isEqualTo(1);
+        assertThat(outboxRepository.findById(oldest.getId())).get()
+                .returns(0, OutboxEvent::getAttempts)
+                .returns(null, OutboxEvent::getLastError)
+                .satisfies(event -> assertThat(event.getNextAttemptAt()).isNotNull());
+        assertThat(outboxRepository.findParked(MAX_ATTEMPTS, Limit.unlimited()))
+                .extracting(OutboxEvent::getId)
+                .containsExactly(newest.getId());
+    }
+
+    private static OutboxEvent event(int attempts, Instant nextAttemptAt, Instant deliverAt, boolean published) {
+        OutboxEvent event = OutboxTestData.createEvent();
+        event.setId(null);
+        event.setOccurredAt(Instant.now());
+        event.setAttempts(attempts);
+        event.setNextAttemptAt(nextAttemptAt);
+        event.setDeliverAt(deliverAt);
+        event.setPublished(published);
+        return event;
+    }
+}
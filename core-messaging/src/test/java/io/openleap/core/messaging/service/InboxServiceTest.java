@@ -0,0 +1,88 @@
+package io.openleap.core.messaging.service;
+
+import io.openleap.core.messaging.config.MessagingProperties;
+import io.openleap.core.messaging.repository.InboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InboxServiceTest {
+
+    @Mock
+    private InboxRepository inboxRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private InboxService inboxService;
+
+    @BeforeEach
+    void setUp() {
+        inboxService = new InboxService(inboxRepository, transactionTemplate, new MessagingProperties.Inbox());
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(transactionStatus));
+    }
+
+    @Test
+    @DisplayName("Should run the handler for a new event and answer repeats from the cache")
+    void handleOnce_RunsHandlerOnce_AndCachesKey() throws Throwable {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        when(inboxRepository.insertIfAbsent("orders.queue", "e-1")).thenReturn(1);
+
+        // when
+        boolean first = inboxService.handleOnce("orders.queue", "e-1", calls::incrementAndGet);
+        boolean second = inboxService.handleOnce("orders.queue", "e-1", calls::incrementAndGet);
+
+        // then
+        assertThat(first).isTrue();
+        assertThat(second).isFalse();
+        assertThat(calls).hasValue(1);
+        verify(inboxRepository, times(1)).insertIfAbsent("orders.queue", "e-1");
+    }
+
+    @Test
+    @DisplayName("Should skip the handler when the inbox already holds the event")
+    void handleOnce_SkipsHandler_WhenRowExists() throws Throwable {
+        // given
+        when(inboxRepository.insertIfAbsent("orders.queue", "e-1")).thenReturn(0);
+
+        // when
+        boolean handled = inboxService.handleOnce("orders.queue", "e-1", () -> {
+            throw new AssertionError("handler must not run");
+        });
+
+        // then
+        assertThat(handled).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should roll back the inbox row and rethrow when the handler fails")
+    void handleOnce_RollsBack_WhenHandlerFails() {
+        // given
+        when(inboxRepository.insertIfAbsent("orders.queue", "e-1")).thenReturn(1);
+
+        // when / then
+        assertThatThrownBy(() -> inboxService.handleOnce("orders.queue", "e-1", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        verify(transactionStatus).setRollbackOnly();
+    }
+}
@@ -0,0 +1,48 @@
+package io.openleap.core.messaging.service;
+
+import io.openleap.core.messaging.config.MessagingProperties;
+import io.openleap.core.messaging.repository.OutboxRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsServiceTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Test
+    @DisplayName("Should report outbox sizes from count queries without loading records")
+    void snapshot_UsesCountQueries() {
+        // given
+        MessagingProperties config = new MessagingProperties();
+        config.getOutbox().getDispatcher().setMaxAttempts(5);
+        MetricsService metricsService = new MetricsService(config, outboxRepository, rabbitTemplate);
+        when(outboxRepository.countPending(5)).thenReturn(7L);
+        when(outboxRepository.countByPublishedFalse()).thenReturn(10L);
+        when(outboxRepository.countParked(5)).thenReturn(3L);
+
+        // when
+        Map<String, Object> snapshot = metricsService.snapshot();
+
+        // then
+        assertThat(snapshot)
+                .containsEntry("outbox_pending", 7L)
+                .containsEntry("outbox_unpublished", 10L)
+                .containsEntry("outbox_parked", 3L);
+        verify(outboxRepository, never()).findByPublishedFalse();
+        verifyNoInteractions(rabbitTemplate);
+    }
+}
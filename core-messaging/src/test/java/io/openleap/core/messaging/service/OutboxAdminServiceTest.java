@@ -0,0 +1,83 @@
+package io.openleap.core.messaging.service;
+
+import io.openleap.core.ReflectionUtils;
+import io.openleap.core.messaging.OutboxTestData;
+import io.openleap.core.messaging.entity.OutboxEvent;
+import io.openleap.core.messaging.repository.OutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxAdminServiceTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    private OutboxAdminService adminService;
+
+    @BeforeEach
+    void setUp() {
+        adminService = new OutboxAdminService(outboxRepository);
+        ReflectionUtils.setField(adminService, "maxAttempts", 5);
+    }
+
+    @Test
+    @DisplayName("Should list parked records through a limited query")
+    void listFailed_QueriesParkedRecordsWithLimit() {
+        // given
+        OutboxEvent parked = OutboxTestData.createEvent();
+        when(outboxRepository.findParked(5, Limit.of(20))).thenReturn(List.of(parked));
+
+        // when
+        List<OutboxEvent> failed = adminService.listFailed(20);
+
+        // then
+        assertThat(failed).containsExactly(parked);
+        verify(outboxRepository, never()).findByPublishedFalse();
+    }
+
+    @Test
+    @DisplayName("Should list every parked record when no positive limit is given")
+    void listFailed_IsUnlimited_WhenLimitNotPositive() {
+        // when
+        adminService.listFailed(0);
+
+        // then
+        verify(outboxRepository).findParked(5, Limit.unlimited());
+    }
+
+    @Test
+    @DisplayName("Should replay parked records with one bulk update")
+    void replayFailed_ReplaysInOneBulkUpdate() {
+        // given
+        when(outboxRepository.replayParked(5, 100)).thenReturn(42);
+
+        // when
+        int replayed = adminService.replayFailed(100);
+
+        // then
+        assertThat(replayed).isEqualTo(42);
+        verify(outboxRepository).replayParked(5, 100);
+        verifyNoMoreInteractions(outboxRepository);
+    }
+
+    @Test
+    @DisplayName("Should replay every parked record when no positive limit is given")
+    void replayFailed_IsUnlimited_WhenLimitNotPositive() {
+        // when
+        adminService.replayFailed(-1);
+
+        // then
+        verify(outboxRepository).replayParked(5, Integer.MAX_VALUE);
+    }
+}
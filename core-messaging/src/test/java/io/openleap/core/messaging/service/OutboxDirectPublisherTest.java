@@ -0,0 +1,140 @@
+package io.openleap.core.messaging.service;
+
+import io.openleap.core.messaging.OutboxTestData;
+import io.openleap.core.messaging.dispatcher.DispatchResult;
+import io.openleap.core.messaging.dispatcher.OutboxCircuitBreaker;
+import io.openleap.core.messaging.dispatcher.OutboxDispatcher;
+import io.openleap.core.messaging.dispatcher.OutboxRateLimiter;
+import io.openleap.core.messaging.entity.OutboxEvent;
+import io.openleap.core.messaging.repository.OutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDirectPublisherTest {
+
+    @Mock
+    private OutboxDispatcher outboxDispatcher;
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxDirectPublisher directPublisher;
+
+    @BeforeEach
+    void setUp() {
+        directPublisher = new OutboxDirectPublisher(outboxDispatcher, outboxRepository, transactionTemplate,
+                null, null, null, false, 15000);
+    }
+
+    @Test
+    @DisplayName("Should lease records past now so the sweep skips them")
+    void lease_SetsNextAttemptInTheFuture() {
+        // given
+        OutboxEvent event = OutboxTestData.createEvent();
+
+        // when
+        directPublisher.lease(List.of(event));
+
+        // then
+        assertThat(event.getNextAttemptAt()).isAfter(Instant.now().plusSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Should mark only acked records as published in one statement")
+    @SuppressWarnings("unchecked")
+    void publish_MarksAckedRecords_AndLeavesOthersToTheSweep() {
+        // given
+        OutboxEvent acked = OutboxTestData.createEvent();
+        OutboxEvent nacked = OutboxTestData.createEvent();
+        nacked.setId(2L);
+        when(outboxDispatcher.dispatchAll(List.of(acked, nacked)))
+                .thenReturn(List.of(DispatchResult.ok(), DispatchResult.fail("nack")));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // when
+        directPublisher.publish(List.of(acked, nacked));
+
+        // then
+        verify(outboxRepository).markPublished(List.of(1L));
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should not take the fast path while the broker circuit is open")
+    void isAvailable_IsFalse_WhenCircuitOpen() {
+        // given
+        OutboxCircuitBreaker circuitBreaker = new OutboxCircuitBreaker(1, 60000);
+        circuitBreaker.onBrokerUnavailable();
+        OutboxDirectPublisher publisher = new OutboxDirectPublisher(outboxDispatcher, outboxRepository,
+                transactionTemplate, null, circuitBreaker, null, false, 15000);
+
+        // then
+        assertThat(publisher.isAvailable()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should leave a half-open circuit to the single probe of the sweep")
+    void isAvailable_IsFalse_WhenCircuitHalfOpen() {
+        // given
+        OutboxCircuitBreaker circuitBreaker = new OutboxCircuitBreaker(1, 0);
+        circuitBreaker.onBrokerUnavailable();
+        circuitBreaker.permits(1);
+        OutboxDirectPublisher publisher = new OutboxDirectPublisher(outboxDispatcher, outboxRepository,
+                transactionTemplate, null, circuitBreaker, null, false, 15000);
+
+        // when: the probe of the sweep is in flight
+        publisher.publish(List.of(OutboxTestData.createEvent()));
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(OutboxCircuitBreaker.State.HALF_OPEN);
+        assertThat(publisher.isAvailable()).isFalse();
+        verifyNoInteractions(outboxDispatcher);
+    }
+
+    @Test
+    @DisplayName("Should hand throttled records back to the sweep at their rate-limit slot")
+    @SuppressWarnings("unchecked")
+    void publish_ReleasesLease_WhenThrottled() {
+        // given
+        OutboxRateLimiter rateLimiter = new OutboxRateLimiter(List.of(new OutboxRateLimiter.Rule(null, "#", 1, 1)));
+        OutboxDirectPublisher publisher = new OutboxDirectPublisher(outboxDispatcher, outboxRepository,
+                transactionTemplate, null, null, rateLimiter, false, 15000);
+        OutboxEvent sent = OutboxTestData.createEvent();
+        OutboxEvent throttled = OutboxTestData.createEvent();
+        throttled.setId(2L);
+        publisher.lease(List.of(sent, throttled));
+        when(outboxDispatcher.dispatchAll(List.of(sent))).thenReturn(List.of(DispatchResult.ok()));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        // when
+        publisher.publish(List.of(sent, throttled));
+
+        // then
+        assertThat(throttled.getNextAttemptAt()).isBefore(Instant.now().plusSeconds(2));
+        verify(outboxRepository).releaseLease(List.of(2L), throttled.getNextAttemptAt());
+        verify(outboxRepository).markPublished(List.of(1L));
+    }
+}
@@ -0,0 +1,135 @@
+package io.openleap.core.messaging.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.openleap.core.messaging.OutboxTestData;
+import io.openleap.core.messaging.entity.OutboxEvent;
+import io.openleap.core.messaging.repository.OutboxRepository;
+import io.openleap.core.messaging.repository.OutboxRouteCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxMetricsTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxMetrics outboxMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxMetrics = new OutboxMetrics(meterRegistry, outboxRepository, 3);
+    }
+
+    @Test
+    @DisplayName("Should publish backlog and parked gauges per exchange and routing key on refresh")
+    void refreshGauges_RegistersRowPerRoute() {
+        // given
+        when(outboxRepository.countBacklogByRoute(3)).thenReturn(List.of(
+                new OutboxRouteCount("test-exchange", "test-rk", 7L),
+                new OutboxRouteCount("test-exchange", "other-rk", 2L)));
+        when(outboxRepository.countParkedByRoute(3)).thenReturn(List.of(
+                new OutboxRouteCount("test-exchange", "test-rk", 1L)));
+
+        // when
+        outboxMetrics.refreshGauges();
+
+        // then
+        Gauge backlog = meterRegistry.find("outbox.backlog").tag("routing_key", "test-rk").gauge();
+        assertThat(backlog).isNotNull();
+        assertThat(backlog.value()).isEqualTo(7.0);
+        assertThat(meterRegistry.find("outbox.backlog").gauges()).hasSize(2);
+        assertThat(meterRegistry.find("outbox.parked").tag("exchange", "test-exchange").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should count dispatches by outcome and time delivery from occurredAt")
+    void recordDispatch_CountsOutcome_AndDeliveryLatency() {
+        // given
+        OutboxEvent event = OutboxTestData.createEvent();
+        event.setOccurredAt(Instant.now().minusSeconds(2));
+
+        // when
+        outboxMetrics.recordDispatch(event, true);
+        outboxMetrics.recordDispatch(event, false);
+        outboxMetrics.recordDeliveryLatency(event);
+        outboxMetrics.recordConfirmLatency("test-exchange", "test-rk", TimeUnit.MILLISECONDS.toNanos(5));
+
+        // then
+        Counter acks = meterRegistry.find("outbox.dispatched").tag("outcome", "ack").counter();
+        Counter nacks = meterRegistry.find("outbox.dispatched").tag("outcome", "nack").counter();
+        assertThat(acks.count()).isEqualTo(1.0);
+        assertThat(nacks.count()).isEqualTo(1.0);
+
+        Timer delivery = meterRegistry.find("outbox.delivery.latency").tag("routing_key", "test-rk").timer();
+        assertThat(delivery.count()).isEqualTo(1);
+        assertThat(delivery.totalTime(TimeUnit.SECONDS)).isGreaterThanOrEqualTo(2.0);
+        assertThat(meterRegistry.find("outbox.confirm.latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reuse the meters of a route across dispatches")
+    void recordDispatch_ReusesMeterPerRoute() {
+        // given
+        OutboxEvent event = OutboxTestData.createEvent();
+
+        // when
+        outboxMetrics.recordDispatch(event, true);
+        outboxMetrics.recordDispatch(event, true);
+        outboxMetrics.recordThrottled(event);
+        outboxMetrics.recordThrottled(event);
+
+        // then
+        assertThat(meterRegistry.find("outbox.dispatched").counters()).hasSize(1);
+        assertThat(meterRegistry.find("outbox.dispatched").tag("outcome", "ack").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.find("outbox.throttled").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should add purged records to one counter registered up front")
+    void recordPurged_IncrementsSingleCounter() {
+        // given
+        Counter purged = meterRegistry.find("outbox.purged").counter();
+
+        // when
+        outboxMetrics.recordPurged(100);
+        outboxMetrics.recordPurged(42);
+
+        // then
+        assertThat(purged).isNotNull();
+        assertThat(purged.count()).isEqualTo(142.0);
+        assertThat(meterRegistry.find("outbox.purged").counters()).containsExactly(purged);
+    }
+
+    @Test
+    @DisplayName("Should time delivery of a scheduled event from its delivery time")
+    void recordDeliveryLatency_StartsAtDeliverAt() {
+        // given
+        OutboxEvent event = OutboxTestData.createEvent();
+        event.setOccurredAt(Instant.now().minusSeconds(3600));
+        event.setDeliverAt(Instant.now().minusSeconds(1));
+
+        // when
+        outboxMetrics.recordDeliveryLatency(event);
+
+        // then
+        Timer delivery = meterRegistry.find("outbox.delivery.latency").timer();
+        assertThat(delivery.totalTime(TimeUnit.SECONDS)).isBetween(1.0, 60.0);
+    }
+}
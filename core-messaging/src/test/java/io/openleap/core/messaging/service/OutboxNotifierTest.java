@@ -0,0 +1,115 @@
+/*
+ * This file is part of the openleap.io software project.
+ *
+ *  Copyright (C) 2025 Dr.-Ing. Sören Kemmann
+ *
+ * This software is dual-licensed under:
+ *
+ * 1. The European Union Public License v.1.2 (EUPL)
+ *    https://joinup.ec.europa.eu/collection/eupl
+ *
+ *     You may use, modify and redistribute this file under the terms of the EUPL.
+ *
+ *  2. A commercial license available from:
+ *
+ *     B+B Unternehmensberatung GmbH & Co.KG
+ *     Robert-Bunsen-Straße 10
+ *     67098 Bad Dürkheim
+ *     Germany
+ *     Contact: license@bb-online.de
+ *
+ *  You may choose which license to apply.
+ */
+package io.openleap.core.messaging.service;
+
+import io.openleap.core.messaging.repository.OutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxNotifierTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private OutboxOrchestrator outboxOrchestrator;
+
+    private OutboxNotifier notifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        notifier = new OutboxNotifier(dataSource, outboxRepository, outboxOrchestrator, "outbox_events");
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notifier.stop();
+    }
+
+    @Test
+    @DisplayName("Should unlisten before handing the connection back to the pool")
+    void stop_UnlistensBeforeClosingConnection() throws Exception {
+        // given
+        PGConnection pgConnection = mock(PGConnection.class);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getNotifications(anyInt())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+
+        // when
+        notifier.start();
+        verify(pgConnection, timeout(2000).atLeastOnce()).getNotifications(anyInt());
+        notifier.stop();
+
+        // then
+        var order = inOrder(statement, connection);
+        order.verify(statement, timeout(3000)).execute("LISTEN outbox_events");
+        order.verify(statement, timeout(3000)).execute("UNLISTEN *");
+        order.verify(connection, timeout(3000)).close();
+    }
+
+    @Test
+    @DisplayName("Should release the connection and keep the listener alive on runtime failures")
+    void listenLoop_SurvivesRuntimeException() throws Exception {
+        // given
+        when(connection.unwrap(PGConnection.class)).thenThrow(new IllegalStateException("not a Postgres connection"));
+
+        // when
+        notifier.start();
+
+        // then
+        verify(statement, timeout(2000)).execute("UNLISTEN *");
+        verify(connection, timeout(2000)).close();
+        assertThat(notifier.isRunning()).isTrue();
+    }
+}
@@ -23,6 +23,9 @@
 package io.openleap.core.messaging.service;
 
 import io.openleap.core.ReflectionUtils;
+import io.openleap.core.lock.LeaderLease;
+import io.openleap.core.messaging.config.MessagingProperties;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -30,8 +33,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
 import java.util.concurrent.TimeUnit;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
 import static org.mockito.Mockito.*;
 
@@ -51,6 +56,11 @@ class OutboxOrchestratorTest {
         ReflectionUtils.setField(orchestrator, "fixedDelayMs", 1000L);
     }
 
+    @AfterEach
+    void tearDown() {
+        orchestrator.shutdown();
+    }
+
     @Test
     @DisplayName("Should trigger outbox processing when scheduled tick occurs")
     void scheduledTick_StartsProcessing_WhenEnabled() {
@@ -75,6 +85,24 @@ class OutboxOrchestratorTest {
         });
     }
 
+    @Test
+    @DisplayName("Should not run passes after shutdown")
+    void shutdown_StopsScheduling() {
+        // given
+        orchestrator.wakeup();
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> {
+            verify(outboxProcessor, atLeastOnce()).processOutbox();
+        });
+
+        // when
+        orchestrator.shutdown();
+        clearInvocations(outboxProcessor);
+        orchestrator.wakeup();
+
+        // then
+        verify(outboxProcessor, after(300).never()).processOutbox();
+    }
+
     @Test
     @DisplayName("Should skip processing when dispatcher is disabled via configuration")
     void execute_DoesNothing_WhenDisabled() {
@@ -94,7 +122,7 @@ class OutboxOrchestratorTest {
         // given: Simulate a long-running process to hold the lock
         doAnswer(invocation -> {
             Thread.sleep(500);
-            return null;
+            return 0;
         }).when(outboxProcessor).processOutbox();
 
         // when: Run the first call in a separate thread to hold the ReentrantLock
@@ -113,4 +141,132 @@ class OutboxOrchestratorTest {
         verify(outboxProcessor, times(1)).processOutbox();
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Should only process on the node holding the leader lease")
+    void execute_SkipsPass_WhenNotLeader() {
+        // given
+        LeaderLease leaderLease = mock(LeaderLease.class);
+        OutboxOrchestrator follower = new OutboxOrchestrator(outboxProcessor, null, leaderLease);
+        ReflectionUtils.setField(follower, "enabled", true);
+        when(leaderLease.isLeader()).thenReturn(false, true);
+
+        // when
+        follower.execute();
+        follower.execute();
+
+        // then
+        verify(leaderLease, times(2)).isLeader();
+        verify(outboxProcessor, times(1)).processOutbox();
+    }
+
+    @Test
+    @DisplayName("Should run the next pass immediately after a full batch and back off while idle")
+    void nextDelay_AdaptsToPassYield() {
+        // given
+        ReflectionUtils.setField(orchestrator, "batchSize", 10);
+        ReflectionUtils.setField(orchestrator, "maxDelayMs", 5000L);
+
+        // when / then
+        assertThat(orchestrator.nextDelay(10)).isZero();
+        assertThat(orchestrator.nextDelay(3)).isEqualTo(1000L);
+
+        orchestrator.currentDelayMs.set(1000L);
+        assertThat(orchestrator.nextDelay(0)).isEqualTo(2000L);
+        orchestrator.currentDelayMs.set(4000L);
+        assertThat(orchestrator.nextDelay(0)).isEqualTo(5000L);
+        orchestrator.currentDelayMs.set(5000L);
+        assertThat(orchestrator.nextDelay(0)).isEqualTo(5000L);
+    }
+
+    @Test
+    @DisplayName("Should schedule the next pass no later than the earliest rate-limited event")
+    void nextDelay_HonorsEarliestDeferral() {
+        // given
+        ReflectionUtils.setField(orchestrator, "batchSize", 10);
+        ReflectionUtils.setField(orchestrator, "fixedDelayMs", 0L);
+
+        // then
+        assertThat(orchestrator.nextDelay(0, 250)).isEqualTo(250L);
+        assertThat(orchestrator.nextDelay(10, 250)).isZero();
+        assertThat(orchestrator.nextDelay(0, -1)).isEqualTo(-1L);
+    }
+
+    @Test
+    @DisplayName("Should run a pass when the earliest scheduled event becomes due")
+    void idlePass_SchedulesNextPassAtNextDelivery() {
+        // given
+        ReflectionUtils.setField(orchestrator, "batchSize", 10);
+        ReflectionUtils.setField(orchestrator, "fixedDelayMs", 0L);
+        when(outboxProcessor.millisUntilNextDelivery()).thenReturn(100L, -1L);
+
+        // when
+        orchestrator.wakeup();
+
+        // then
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> {
+            verify(outboxProcessor, times(2)).processOutbox();
+        });
+    }
+
+    @Test
+    @DisplayName("Should request a pass at the given delivery time")
+    void wakeupAt_TriggersDispatch_WhenDue() {
+        // when
+        orchestrator.wakeupAt(Instant.now().plusMillis(100));
+
+        // then
+        await().atMost(2, TimeUnit.SECONDS).untilAsserted(() -> {
+            verify(outboxProcessor, atLeastOnce()).processOutbox();
+        });
+    }
+
+    @Test
+    @DisplayName("Should only react to wakeups when the fixed delay is zero")
+    void nextDelay_WaitsForWakeup_WhenFixedDelayIsZero() {
+        // given
+        ReflectionUtils.setField(orchestrator, "fixedDelayMs", 0L);
+
+        // when / then
+        assertThat(orchestrator.nextDelay(0)).isEqualTo(-1L);
+        assertThat(orchestrator.nextDelay(100)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drain claimed batches on every worker in parallel mode")
+    void executeParallel_DrainsUntilPartialBatch() {
+        // given
+        ReflectionUtils.setField(orchestrator, "mode", MessagingProperties.DispatchMode.parallel);
+        ReflectionUtils.setField(orchestrator, "workers", 2);
+        ReflectionUtils.setField(orchestrator, "batchSize", 10);
+        when(outboxProcessor.processClaimedBatch()).thenReturn(10, 10, 3, 0);
+
+        // when
+        orchestrator.executeParallel();
+
+        // then
+        verify(outboxProcessor, times(4)).processClaimedBatch();
+        verify(outboxProcessor, never()).processOutbox();
+    }
+
+    @Test
+    @DisplayName("Should visit every lane once per round and repeat only while some lane had a full batch")
+    void executeOrdered_VisitsLanesRoundRobin() {
+        // given
+        ReflectionUtils.setField(orchestrator, "mode", MessagingProperties.DispatchMode.ordered);
+        ReflectionUtils.setField(orchestrator, "workers", 2);
+        ReflectionUtils.setField(orchestrator, "lanes", 4);
+        ReflectionUtils.setField(orchestrator, "batchSize", 10);
+        when(outboxProcessor.processLane(anyInt())).thenReturn(0);
+        when(outboxProcessor.processLane(2)).thenReturn(10, 4);
+
+        // when
+        orchestrator.executeOrdered();
+
+        // then
+        verify(outboxProcessor, times(1)).processLane(1);
+        verify(outboxProcessor, times(1)).processLane(3);
+        verify(outboxProcessor, times(2)).processLane(0);
+        verify(outboxProcessor, times(2)).processLane(2);
+    }
+
+}
@@ -3,18 +3,25 @@ package io.openleap.core.messaging.service;
 import io.openleap.core.ReflectionUtils;
 import io.openleap.core.messaging.OutboxTestData;
 import io.openleap.core.messaging.dispatcher.DispatchResult;
+import io.openleap.core.messaging.dispatcher.OutboxCircuitBreaker;
 import io.openleap.core.messaging.dispatcher.OutboxDispatcher;
+import io.openleap.core.messaging.dispatcher.OutboxPriorityWeights;
+import io.openleap.core.messaging.dispatcher.OutboxRateLimiter;
 import io.openleap.core.messaging.entity.OutboxEvent;
+import io.openleap.core.messaging.event.EventPriority;
 import io.openleap.core.messaging.repository.OutboxRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -25,7 +32,8 @@ class OutboxProcessorTest {
     @Mock
     private OutboxRepository outboxRepository;
 
-    @Mock
+    // Real default dispatchAll() so per-event dispatch() stubs drive the windowed path
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private OutboxDispatcher outboxDispatcher;
 
     private OutboxProcessor outboxProcessor;
@@ -43,7 +51,7 @@ class OutboxProcessorTest {
     void processOutbox_Success_WhenDispatcherReturnsAck() throws Exception {
         // given
         OutboxEvent event = OutboxTestData.createEvent();
-        when(outboxRepository.findPending()).thenReturn(List.of(event));
+        when(outboxRepository.findPendingPage(eq(3), any(Limit.class))).thenReturn(List.of(event));
         when(outboxDispatcher.dispatch(event)).thenReturn(new DispatchResult(true, null));
 
         // when
@@ -64,7 +72,7 @@ class OutboxProcessorTest {
         // given
         ReflectionUtils.setField(outboxProcessor, "deleteOnAck", true);
         OutboxEvent event = OutboxTestData.createEvent();
-        when(outboxRepository.findPending()).thenReturn(List.of(event));
+        when(outboxRepository.findPendingPage(eq(3), any(Limit.class))).thenReturn(List.of(event));
         when(outboxDispatcher.dispatch(event)).thenReturn(new DispatchResult(true, null));
 
         // when
@@ -81,7 +89,7 @@ class OutboxProcessorTest {
         // given
         OutboxEvent event = OutboxTestData.createEvent();
         event.setAttempts(1);
-        when(outboxRepository.findPending()).thenReturn(List.of(event));
+        when(outboxRepository.findPendingPage(eq(3), any(Limit.class))).thenReturn(List.of(event));
         when(outboxDispatcher.dispatch(event)).thenReturn(new DispatchResult(false, "CONNECTION_TIMEOUT"));
 
         // when
@@ -104,7 +112,7 @@ class OutboxProcessorTest {
         OutboxEvent event = OutboxTestData.createEvent();
         // Next failure makes it 3
         event.setAttempts(2);
-        when(outboxRepository.findPending()).thenReturn(List.of(event));
+        when(outboxRepository.findPendingPage(eq(3), any(Limit.class))).thenReturn(List.of(event));
         when(outboxDispatcher.dispatch(event)).thenReturn(new DispatchResult(false, "FATAL_ERROR"));
 
         // when
@@ -128,7 +136,7 @@ class OutboxProcessorTest {
         // Parked state
         parkedEvent.setNextAttemptAt(null);
 
-        when(outboxRepository.findPending()).thenReturn(List.of(parkedEvent));
+        when(outboxRepository.findPendingPage(eq(3), any(Limit.class))).thenReturn(List.of(parkedEvent));
 
         // when
         outboxProcessor.processOutbox();
@@ -137,4 +145,333 @@ class OutboxProcessorTest {
         verify(outboxDispatcher, never()).dispatch(any());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Should dispatch every claimed event and report the claimed count")
+    void processClaimedBatch_DispatchesClaimedEvents() throws Exception {
+        // given
+        ReflectionUtils.setField(outboxProcessor, "batchSize", 50);
+        OutboxEvent event = OutboxTestData.createEvent();
+        when(outboxRepository.claimPending(3, 50)).thenReturn(List.of(event));
+        when(outboxDispatcher.dispatch(event)).thenReturn(DispatchResult.ok());
+
+        // when
+        int claimed = outboxProcessor.processClaimedBatch();
+
+        // then
+        assertThat(claimed).isEqualTo(1);
+        assertThat(event.isPublished()).isTrue();
+        verify(outboxRepository).save(event);
+    }
+
+    @Test
+    @DisplayName("Should stop a lane at the first failed event so later events of the lane keep their order")
+    void processLane_StopsAtFirstFailure() throws Exception {
+        // given
+        ReflectionUtils.setField(outboxProcessor, "batchSize", 50);
+        OutboxEvent first = OutboxTestData.createEvent();
+        OutboxEvent failing = OutboxTestData.createEvent();
+        failing.setId(2L);
+        OutboxEvent blocked = OutboxTestData.createEvent();
+        blocked.setId(3L);
+        when(outboxRepository.tryLockLane(OutboxProcessor.LANE_LOCK_NAMESPACE, 5)).thenReturn(true);
+        when(outboxRepository.findLaneHead(eq(5), eq(16), eq(3), any(Limit.class))).thenReturn(List.of(first, failing, blocked));
+        when(outboxDispatcher.dispatch(first)).thenReturn(DispatchResult.ok());
+        when(outboxDispatcher.dispatch(failing)).thenReturn(DispatchResult.fail("NACK"));
+
+        // when
+        int published = outboxProcessor.processLane(5);
+
+        // then
+        assertThat(published).isEqualTo(1);
+        assertThat(first.isPublished()).isTrue();
+        assertThat(failing.getAttempts()).isEqualTo(1);
+        verify(outboxDispatcher, never()).dispatch(blocked);
+    }
+
+    @Test
+    @DisplayName("Should dispatch records enqueued under a larger lane count from their folded lane")
+    void processLane_FoldsRecordsFromLargerLaneCount() throws Exception {
+        // given: written while lanes was 32, now processed with 8 lanes
+        ReflectionUtils.setField(outboxProcessor, "lanes", 8);
+        ReflectionUtils.setField(outboxProcessor, "batchSize", 50);
+        OutboxEvent stranded = OutboxTestData.createEvent();
+        stranded.setLane(21);
+        when(outboxRepository.tryLockLane(OutboxProcessor.LANE_LOCK_NAMESPACE, 5)).thenReturn(true);
+        when(outboxRepository.findLaneHead(eq(5), eq(8), eq(3), any(Limit.class))).thenReturn(List.of(stranded));
+        when(outboxDispatcher.dispatch(stranded)).thenReturn(DispatchResult.ok());
+
+        // when
+        int published = outboxProcessor.processLane(5);
+
+        // then
+        assertThat(published).isEqualTo(1);
+        assertThat(stranded.isPublished()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should skip a lane held by another dispatcher")
+    void processLane_SkipsLane_WhenLockHeldElsewhere() {
+        // given
+        when(outboxRepository.tryLockLane(OutboxProcessor.LANE_LOCK_NAMESPACE, 1)).thenReturn(false);
+
+        // when
+        int published = outboxProcessor.processLane(1);
+
+        // then
+        assertThat(published).isZero();
+        verify(outboxRepository, never()).findLaneHead(anyInt(), anyInt(), anyInt(), any(Limit.class));
+    }
+
+    @Test
+    @DisplayName("Should settle each event of a window by its own confirm")
+    void processOutbox_SettlesEachEvent_WhenWindowHasMixedConfirms() {
+        // given
+        OutboxEvent acked = OutboxTestData.createEvent();
+        OutboxEvent nacked = OutboxTestData.createEvent();
+        nacked.setId(2L);
+        when(outboxRepository.findPendingPage(eq(3), any(Limit.class))).thenReturn(List.of(acked, nacked));
+        when(outboxDispatcher.dispatchAll(List.of(acked, nacked)))
+                .thenReturn(List.of(DispatchResult.ok(), DispatchResult.fail("NACK")));
+
+        // when
+        outboxProcessor.processOutbox();
+
+        // then
+        assertThat(acked.isPublished()).isTrue();
+        assertThat(nacked)
+                .returns(false, OutboxEvent::isPublished)
+                .returns(1, OutboxEvent::getAttempts)
+                .returns("NACK", OutboxEvent::getLastError);
+    }
+
+    @Test
+    @DisplayName("Should count a throwing window as one broker failure and charge its records while the circuit stays closed")
+    void processOutbox_CountsThrowingWindowAsOneFailure() {
+        // given
+        OutboxCircuitBreaker circuitBreaker = new OutboxCircuitBreaker(2, 60_000);
+        outboxProcessor = new OutboxProcessor(outboxRepository, outboxDispatcher, null, null, circuitBreaker, null, null);
+        ReflectionUtils.setField(outboxProcessor, "maxAttempts", 3);
+        OutboxEvent first = OutboxTestData.createEvent();
+        OutboxEvent second = OutboxTestData.createEvent();
+        second.setId(2L);
+        OutboxEvent third = OutboxTestData.createEvent();
+        third.setId(3L);
+        List<OutboxEvent> window = List.of(first, second, third);
+        when(outboxRepository.findPendingPage(eq(3), any(Limit.class))).thenReturn(window);
+        when(outboxDispatcher.dispatchAll(window)).thenThrow(new IllegalStateException("Channel closed"));
+
+        // when
+        outboxProcessor.processOutbox();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(OutboxCircuitBreaker.State.CLOSED);
+        assertThat(window).allSatisfy(event -> assertThat(event)
+                .returns(false, OutboxEvent::isPublished)
+                .returns(1, OutboxEvent::getAttempts)
+                .returns("Channel closed", OutboxEvent::getLastError)
+                .satisfies(e -> assertThat(e.getNextAttemptAt()).isAfter(Instant.now())));
+    }
+
+    @Test
+    @DisplayName("Should not charge attempts when a throwing window opens the circuit")
+    void processOutbox_KeepsAttempts_WhenThrowingWindowOpensCircuit() {
+        // given
+        OutboxCircuitBreaker circuitBreaker = new OutboxCircuitBreaker(1, 60_000);
+        outboxProcessor = new OutboxProcessor(outboxRepository, outboxDispatcher, null, null, circuitBreaker, null, null);
+        ReflectionUtils.setField(outboxProcessor, "maxAttempts", 3);
+        OutboxEvent event = OutboxTestData.createEvent();
+        when(outboxRepository.findPendingPage(eq(3), any(Limit.class))).thenReturn(List.of(event));
+        when(outboxDispatcher.dispatchAll(List.of(event))).thenThrow(new IllegalStateException("Channel closed"));
+
+        // when
+        outboxProcessor.processOutbox();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(OutboxCircuitBreaker.State.OPEN);
+        assertThat(event)
+                .returns(false, OutboxEvent::isPublished)
+                .returns(0, OutboxEvent::getAttempts);
+        verify(outboxRepository, never()).save(event);
+    }
+
+    @Test
+    @DisplayName("Should charge and back off a record without confirm while the rest of its window is acked")
+    void processOutbox_ChargesAttempt_WhenConfirmTimesOutWithCircuitClosed() {
+        // given
+        OutboxCircuitBreaker circuitBreaker = new OutboxCircuitBreaker(5, 60_000);
+        outboxProcessor = new OutboxProcessor(outboxRepository, outboxDispatcher, null, null, circuitBreaker, null, null);
+        ReflectionUtils.setField(outboxProcessor, "maxAttempts", 3);
+        OutboxEvent timedOut = OutboxTestData.createEvent();
+        OutboxEvent acked = OutboxTestData.createEvent();
+        acked.setId(2L);
+        when(outboxRepository.findPendingPage(eq(3), any(Limit.class))).thenReturn(List.of(timedOut, acked));
+        when(outboxDispatcher.dispatchAll(List.of(timedOut, acked)))
+                .thenReturn(List.of(DispatchResult.unavailable("No confirm (timeout)"), DispatchResult.ok()));
+
+        // when
+        outboxProcessor.processOutbox();
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(OutboxCircuitBreaker.State.CLOSED);
+        assertThat(timedOut)
+                .returns(false, OutboxEvent::isPublished)
+                .returns(1, OutboxEvent::getAttempts)
+                .returns("No confirm (timeout)", OutboxEvent::getLastError);
+        assertThat(timedOut.getNextAttemptAt()).isAfter(Instant.now());
+        assertThat(acked.isPublished()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should leave events untouched and stop dispatching once the broker circuit opens")
+    void processOutbox_KeepsAttempts_WhenBrokerUnavailable() {
+        // given
+        OutboxCircuitBreaker circuitBreaker = new OutboxCircuitBreaker(1, 60_000);
+        outboxProcessor = new OutboxProcessor(outboxRepository, outboxDispatcher, null, null, circuitBreaker, null, null);
+        ReflectionUtils.setField(outboxProcessor, "maxAttempts", 3);
+        ReflectionUtils.setField(outboxProcessor, "batchSize", 1);
+        OutboxEvent first = OutboxTestData.createEvent();
+        OutboxEvent second = OutboxTestData.createEvent();
+        second.setId(2L);
+        when(outboxRepository.findPendingPage(eq(3), any(Limit.class))).thenReturn(List.of(first, second));
+        when(outboxDispatcher.dispatchAll(List.of(first)))
+                .thenReturn(List.of(DispatchResult.unavailable("Connection refused")));
+
+        // when
+        int dispatched = outboxProcessor.processOutbox();
+
+        // then
+        assertThat(dispatched).isEqualTo(1);
+        assertThat(circuitBreaker.getState()).isEqualTo(OutboxCircuitBreaker.State.OPEN);
+        assertThat(first)
+                .returns(0, OutboxEvent::getAttempts)
+                .returns(null, OutboxEvent::getNextAttemptAt);
+        verify(outboxDispatcher, never()).dispatchAll(List.of(second));
+        verify(outboxRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should defer events over their rate limit without charging an attempt")
+    void processOutbox_DefersThrottledEvents_WithoutChargingAttempts() throws Exception {
+        // given
+        OutboxRateLimiter rateLimiter = new OutboxRateLimiter(List.of(new OutboxRateLimiter.Rule("*", "#", 1, 1)));
+        outboxProcessor = new OutboxProcessor(outboxRepository, outboxDispatcher, null, null, null, rateLimiter, null);
+        ReflectionUtils.setField(outboxProcessor, "maxAttempts", 3);
+        OutboxEvent sent = OutboxTestData.createEvent();
+        OutboxEvent throttled = OutboxTestData.createEvent();
+        throttled.setId(2L);
+        when(outboxRepository.findPendingPage(eq(3), any(Limit.class))).thenReturn(List.of(sent, throttled));
+        when(outboxDispatcher.dispatch(sent)).thenReturn(DispatchResult.ok());
+
+        // when
+        int dispatched = outboxProcessor.processOutbox();
+
+        // then
+        assertThat(dispatched).isEqualTo(1);
+        assertThat(sent.isPublished()).isTrue();
+        assertThat(throttled)
+                .returns(false, OutboxEvent::isPublished)
+                .returns(0, OutboxEvent::getAttempts)
+                .returns(null, OutboxEvent::getLastError);
+        assertThat(throttled.getNextAttemptAt()).isAfter(Instant.now());
+        assertThat(outboxProcessor.takeEarliestDeferral()).isPositive();
+        verify(outboxDispatcher, never()).dispatch(throttled);
+    }
+
+    @Test
+    @DisplayName("Should walk the backlog page by page using the keyset cursor")
+    void processOutbox_WalksPages_UntilPartialPage() throws Exception {
+        // given
+        ReflectionUtils.setField(outboxProcessor, "pageSize", 1);
+        OutboxEvent first = OutboxTestData.createEvent();
+        OutboxEvent second = OutboxTestData.createEvent();
+        second.setId(2L);
+        when(outboxRepository.findPendingPage(eq(3), any(Limit.class))).thenReturn(List.of(first));
+        when(outboxRepository.findPendingPageAfter(eq(3), any(), eq(1L), any(Limit.class))).thenReturn(List.of(second));
+        when(outboxRepository.findPendingPageAfter(eq(3), any(), eq(2L), any(Limit.class))).thenReturn(List.of());
+        when(outboxDispatcher.dispatch(any())).thenReturn(DispatchResult.ok());
+
+        // when
+        outboxProcessor.processOutbox();
+
+        // then
+        assertThat(List.of(first, second)).allMatch(OutboxEvent::isPublished);
+        verify(outboxDispatcher, times(2)).dispatch(any());
+    }
+
+    @Test
+    @DisplayName("Should report the delay until the earliest scheduled event, or -1 without one")
+    void millisUntilNextDelivery_ReflectsEarliestScheduledEvent() {
+        // given
+        when(outboxRepository.findNextDeliverAt()).thenReturn(Instant.now().plusSeconds(60), (Instant) null);
+
+        // then
+        assertThat(outboxProcessor.millisUntilNextDelivery()).isBetween(1L, 60_000L);
+        assertThat(outboxProcessor.millisUntilNextDelivery()).isEqualTo(-1L);
+    }
+
+    @Test
+    @DisplayName("Should fill a claimed batch by priority weight and hand unused shares to the remaining priorities")
+    void processClaimedBatch_SharesBatchByPriority() {
+        // given
+        OutboxProcessor processor = new OutboxProcessor(outboxRepository, outboxDispatcher, null, null, null, null,
+                new OutboxPriorityWeights(Map.of(EventPriority.HIGH, 8, EventPriority.NORMAL, 4, EventPriority.LOW, 1)));
+        ReflectionUtils.setField(processor, "maxAttempts", 3);
+        ReflectionUtils.setField(processor, "batchSize", 10);
+        OutboxEvent high = event(1L, EventPriority.HIGH);
+        OutboxEvent firstLow = event(2L, EventPriority.LOW);
+        OutboxEvent secondLow = event(3L, EventPriority.LOW);
+        when(outboxRepository.claimPendingByPriority(eq(3), eq("high"), any(), anyLong(), eq(6))).thenReturn(List.of(high));
+        when(outboxRepository.claimPendingByPriority(eq(3), eq("normal"), any(), anyLong(), eq(3))).thenReturn(List.of());
+        when(outboxRepository.claimPendingByPriority(eq(3), eq("low"), any(), eq(0L), eq(1))).thenReturn(List.of(firstLow));
+        when(outboxRepository.claimPendingByPriority(eq(3), eq("low"), any(), eq(2L), eq(8))).thenReturn(List.of(secondLow));
+        when(outboxDispatcher.dispatch(any())).thenReturn(DispatchResult.ok());
+
+        // when
+        int claimed = processor.processClaimedBatch();
+
+        // then
+        assertThat(claimed).isEqualTo(3);
+        assertThat(List.of(high, firstLow, secondLow)).allMatch(OutboxEvent::isPublished);
+    }
+
+    @Test
+    @DisplayName("Should keep asking a caught-up priority during a pass so new urgent events overtake the backlog")
+    void processOutbox_RevisitsCaughtUpPriority_WhileBacklogDrains() {
+        // given
+        OutboxProcessor processor = new OutboxProcessor(outboxRepository, outboxDispatcher, null, null, null, null,
+                new OutboxPriorityWeights(Map.of(EventPriority.HIGH, 1, EventPriority.NORMAL, 1, EventPriority.LOW, 1)));
+        ReflectionUtils.setField(processor, "maxAttempts", 3);
+        ReflectionUtils.setField(processor, "pageSize", 3);
+        OutboxEvent firstLow = event(1L, EventPriority.LOW);
+        OutboxEvent secondLow = event(2L, EventPriority.LOW);
+        OutboxEvent urgent = event(3L, EventPriority.HIGH);
+        when(outboxRepository.findPendingPageByPriority(eq(3), any(), any(Limit.class))).thenReturn(List.of());
+        when(outboxRepository.findPendingPageByPriority(eq(3), eq(EventPriority.LOW), any(Limit.class))).thenReturn(List.of(firstLow));
+        when(outboxRepository.findPendingPageByPriorityAfter(eq(3), eq(EventPriority.LOW), any(), eq(1L), any(Limit.class)))
+                .thenReturn(List.of(secondLow));
+        when(outboxRepository.findPendingPageByPriorityAfter(eq(3), eq(EventPriority.LOW), any(), eq(2L), any(Limit.class)))
+                .thenReturn(List.of());
+        // The urgent event shows up after the first round
+        when(outboxRepository.findPendingPageByPriority(eq(3), eq(EventPriority.HIGH), any(Limit.class)))
+                .thenReturn(List.of(), List.of(urgent), List.of());
+        when(outboxRepository.findPendingPageByPriorityAfter(eq(3), eq(EventPriority.HIGH), any(), eq(3L), any(Limit.class)))
+                .thenReturn(List.of());
+        when(outboxDispatcher.dispatch(any())).thenReturn(DispatchResult.ok());
+
+        // when
+        int processed = processor.processOutbox();
+
+        // then
+        assertThat(processed).isEqualTo(3);
+        assertThat(List.of(firstLow, urgent, secondLow)).allMatch(OutboxEvent::isPublished);
+    }
+
+    private static OutboxEvent event(long id, EventPriority priority) {
+        OutboxEvent event = OutboxTestData.createEvent();
+        event.setId(id);
+        event.setPriority(priority);
+        event.setCreatedAt(Instant.now());
+        return event;
+    }
+
+}
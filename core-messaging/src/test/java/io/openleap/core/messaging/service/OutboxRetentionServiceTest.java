@@ -0,0 +1,62 @@
+package io.openleap.core.messaging.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.openleap.core.messaging.config.MessagingProperties;
+import io.openleap.core.messaging.repository.OutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRetentionServiceTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MessagingProperties.Outbox.Retention retention;
+    private OutboxRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retention = new MessagingProperties.Outbox.Retention();
+        retention.setEnabled(true);
+        retention.setMaxAge(Duration.ofHours(1));
+        retention.setChunkSize(100);
+        retention.setPauseMillis(0);
+        retentionService = new OutboxRetentionService(outboxRepository, transactionTemplate, retention,
+                new OutboxMetrics(meterRegistry, outboxRepository, 10));
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("Should delete in chunks until a partial chunk and count purged rows")
+    void purgePublished_DeletesChunksUntilPartialChunk() {
+        // given
+        when(outboxRepository.deletePublishedBefore(3600, 100)).thenReturn(100, 100, 42);
+
+        // when
+        long purged = retentionService.purgePublished();
+
+        // then
+        assertThat(purged).isEqualTo(242);
+        verify(outboxRepository, times(3)).deletePublishedBefore(3600, 100);
+        assertThat(meterRegistry.find("outbox.purged").counter().count()).isEqualTo(242.0);
+    }
+}